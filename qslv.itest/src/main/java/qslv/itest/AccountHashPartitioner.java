@@ -0,0 +1,44 @@
+package qslv.itest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+/*
+ * Set as partitioner.class through qslv.kafka-partitioner. Keyed records go to murmur2(key) mod partitions,
+ * as with the default partitioner. Unkeyed records go round robin one by one rather than sticking to
+ * one partition per batch, so they never show up as a hot partition in a short run.
+ */
+public class AccountHashPartitioner implements Partitioner {
+
+	private final ConcurrentMap<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+	@Override
+	public void configure(Map<String, ?> configs) {
+	}
+
+	@Override
+	public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+		int partitions = cluster.partitionsForTopic(topic).size();
+		if (keyBytes != null) {
+			return Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+		}
+		int next = Utils.toPositive(counters.computeIfAbsent(topic, k -> new AtomicInteger()).getAndIncrement());
+		List<PartitionInfo> available = cluster.availablePartitionsForTopic(topic);
+		if (available.isEmpty()) {
+			return next % partitions;
+		}
+		return available.get(next % available.size()).partition();
+	}
+
+	@Override
+	public void close() {
+	}
+}
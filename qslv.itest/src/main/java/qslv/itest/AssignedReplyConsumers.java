@@ -0,0 +1,132 @@
+package qslv.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.Resource;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.transaction.request.CancelReservationRequest;
+import qslv.transaction.request.CommitReservationRequest;
+import qslv.transaction.request.TransactionRequest;
+import qslv.transaction.response.CancelReservationResponse;
+import qslv.transaction.response.CommitReservationResponse;
+import qslv.transaction.response.TransactionResponse;
+
+/*
+ * Reply consumers for qslv.kafka-reply-assignment=assigned. Instead of joining group "foo" (and waiting for its
+ * rebalance), each reply topic gets a container manually assigned every partition, starting at the end offsets
+ * read when the context starts, under a group id unique to this run. Concurrent runs on one broker no longer share
+ * partitions and a run never sees replies from an earlier one. Records or batches go to the same
+ * KafkaFulfillmentListener handlers as the @KafkaListener consumers, which stay stopped in this mode.
+ */
+@Component
+public class AssignedReplyConsumers implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(AssignedReplyConsumers.class);
+	public static final String ASSIGNED = "assigned";
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private KafkaFulfillmentListener listener;
+	@Resource(name = "cancelReservationListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<CancelReservationRequest,CancelReservationResponse>>> cancelFactory;
+	@Resource(name = "cancelReservationBatchListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<CancelReservationRequest,CancelReservationResponse>>> cancelBatchFactory;
+	@Resource(name = "commitReservationListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitFactory;
+	@Resource(name = "commitReservationBatchListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitBatchFactory;
+	// KafkaListenerConfig declares these with the commit types; the deserializer reads whatever the topic holds
+	@Resource(name = "transactionListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionFactory;
+	@Resource(name = "transactionBatchListenerContainerFactory")
+	private ConcurrentKafkaListenerContainerFactory<String, TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionBatchFactory;
+
+	private final List<ConcurrentMessageListenerContainer<String, ?>> containers = new ArrayList<>();
+	private String groupId;
+	private volatile boolean running;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	@Override
+	public synchronized void start() {
+		running = true;
+		if (!ASSIGNED.equals(config.getKafkaReplyAssignment())) {
+			return;
+		}
+		groupId = config.getKafkaReplyGroupPrefix() + UUID.randomUUID();
+		boolean batch = "batch".equals(config.getKafkaReplyListenerMode());
+		log.info("start {} {} consumers", groupId, batch ? "batch" : "record");
+
+		start(batch ? cancelBatchFactory : cancelFactory, config.getKafkaCancelReplyQueue(), batch, listener::cancelReply);
+		start(batch ? commitBatchFactory : commitFactory, config.getKafkaCommitReplyQueue(), batch, listener::commitReply);
+		start(batch ? transactionBatchFactory : transactionFactory, config.getKafkaTransactionReplyQueue(), batch, listener::transactionReply);
+	}
+
+	private <V> void start(ConcurrentKafkaListenerContainerFactory<String, V> factory, String topic, boolean batch, Consumer<V> handler) {
+		TopicPartitionOffset[] assignment = endOffsets(factory, topic);
+		ConcurrentMessageListenerContainer<String, V> container = factory.createContainer(assignment);
+		container.getContainerProperties().setGroupId(groupId);
+		container.setBeanName(groupId + "-" + topic);
+		if (batch) {
+			container.setupMessageListener((BatchMessageListener<String, V>) records -> records.forEach(record -> handler.accept(record.value())));
+		} else {
+			container.setupMessageListener((MessageListener<String, V>) record -> handler.accept(record.value()));
+		}
+		container.start();
+		containers.add(container);
+		log.debug("start {} partitions {}", topic, assignment.length);
+	}
+
+	/*
+	 * Fixed offsets rather than SeekPosition.END: the container resolves END on its first poll, and a reply
+	 * produced in between would be skipped.
+	 */
+	private <V> TopicPartitionOffset[] endOffsets(ConcurrentKafkaListenerContainerFactory<String, V> factory, String topic) {
+		try (org.apache.kafka.clients.consumer.Consumer<?, ?> consumer = factory.getConsumerFactory().createConsumer(groupId, null)) {
+			List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+					.map(info -> new TopicPartition(info.topic(), info.partition()))
+					.collect(Collectors.toList());
+			Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+			return partitions.stream()
+					.map(partition -> new TopicPartitionOffset(topic, partition.partition(), endOffsets.get(partition)))
+					.toArray(TopicPartitionOffset[]::new);
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		containers.forEach(ConcurrentMessageListenerContainer::stop);
+		containers.clear();
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+}
@@ -0,0 +1,159 @@
+package qslv.itest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import qslv.util.RestClientElapsedTimeSLILogger;
+
+/*
+ * Non-blocking counterpart of RestTemplateProxy. Retries follow the same rules as RestConfig.retryTemplate:
+ * a transport failure (I/O error or timeout) is turned into the ResourceAccessException RestTemplate would have
+ * thrown, and only ResourceAccessException is retried, with decorrelated-jitter backoff, within the URL's retry
+ * budget and circuit breaker. HTTP error statuses and unreadable bodies are returned to the caller as-is.
+ * SLI lines go to the RestClientElapsedTimeSLILogger category, labelled with the URL path as the blocking calls' are.
+ */
+@Component
+public class AsyncRestProxy {
+	private static final Logger log = LoggerFactory.getLogger(AsyncRestProxy.class);
+	private static final Logger sli = LoggerFactory.getLogger(RestClientElapsedTimeSLILogger.class);
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private WebClient webClient;
+	@Autowired
+	private ServiceLatencyRecorder latencyRecorder;
+	@Autowired
+	private RestResilience resilience;
+	@Autowired
+	private EndpointTimer endpointTimer;
+	@Autowired
+	private ServiceInstanceBalancer balancer;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+	public void setWebClient(WebClient webClient) {
+		this.webClient = webClient;
+	}
+	public void setLatencyRecorder(ServiceLatencyRecorder latencyRecorder) {
+		this.latencyRecorder = latencyRecorder;
+	}
+	public void setResilience(RestResilience resilience) {
+		this.resilience = resilience;
+	}
+	public void setEndpointTimer(EndpointTimer endpointTimer) {
+		this.endpointTimer = endpointTimer;
+	}
+	public void setBalancer(ServiceInstanceBalancer balancer) {
+		this.balancer = balancer;
+	}
+
+	public <T> CompletableFuture<ResponseEntity<T>> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity, ParameterizedTypeReference<T> responseType) {
+		final long start = System.nanoTime();
+		final RestResilience.Endpoint endpoint = resilience.endpoint(url);
+		Mono<ResponseEntity<T>> exchange = Mono.defer(() -> {
+			if (!endpoint.getBreaker().tryAcquire()) {
+				return Mono.error(new CircuitBreakerOpenException(url));
+			}
+			resilience.recordAttempt(url);
+			final ServiceInstanceBalancer.Instance instance = balancer.choose(url);
+			final long attemptStart = System.nanoTime();
+			return webClient.method(method).uri(instance.getUrl())
+				.headers(headers -> headers.addAll(requestEntity.getHeaders()))
+				.bodyValue(requestEntity.getBody())
+				.retrieve()
+				.toEntity(responseType)
+				.timeout(Duration.ofMillis(config.getRestTimeout()))
+				.onErrorMap(AsyncRestProxy::isTransportFailure, ex -> new ResourceAccessException(
+						String.format("I/O error on %s request for \"%s\": %s", method, instance.getUrl(), ex.getMessage()),
+						ex instanceof IOException ? (IOException) ex : new IOException(ex)))
+				.doOnSuccess(response -> {
+					long elapsed = System.nanoTime() - attemptStart;
+					endpointTimer.record(instance.getUrl(), method, response.getStatusCodeValue(), elapsed);
+					latencyRecorder.record(url, elapsed, response.getBody());
+					balancer.release(instance, elapsed, true);
+					endpoint.getBreaker().recordSuccess();
+				})
+				.doOnError(ex -> {
+					long elapsed = System.nanoTime() - attemptStart;
+					boolean healthy;
+					if (ex instanceof WebClientResponseException) {
+						int status = ((WebClientResponseException) ex).getRawStatusCode();
+						endpointTimer.record(instance.getUrl(), method, status, elapsed);
+						healthy = status < 500;
+					} else if (ex instanceof ResourceAccessException) {
+						endpointTimer.record(instance.getUrl(), method, EndpointTimer.TRANSPORT_FAILURE, elapsed);
+						healthy = false;
+					} else {
+						// the service answered, but the body could not be read; not the service's fault
+						healthy = true;
+					}
+					balancer.release(instance, elapsed, healthy);
+					if (healthy) {
+						endpoint.getBreaker().recordSuccess();
+					} else {
+						endpoint.getBreaker().recordFailure();
+					}
+				})
+				// a hedge loser is cancelled mid-flight; it still has to give its slot back
+				.doOnCancel(() -> balancer.abandon(instance));
+		});
+
+		return exchange
+			.retryWhen(Retry.from(signals -> {
+				long[] previous = { config.getRestBackoffDelay() };
+				return signals.concatMap(signal -> {
+					if (!(signal.failure() instanceof ResourceAccessException) || signal.totalRetries() + 1 >= config.getRestAttempts()
+							|| !endpoint.getBudget().tryRetry()) {
+						return Mono.error(signal.failure());
+					}
+					previous[0] = DecorrelatedJitterBackOffPolicy.nextInterval(previous[0], config.getRestBackoffDelay(), config.getRestBackoffDelayMax());
+					return Mono.delay(Duration.ofMillis(previous[0]));
+				});
+			}))
+			.onErrorMap(ResourceAccessException.class, ex -> {
+				String msg = String.format("HTTP %s to URL %s with %d retries failed.", method, url, config.getRestAttempts());
+				log.warn("exchange EXIT {}", msg);
+				return new ResourceAccessException(msg, ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex));
+			})
+			.doOnSuccess(response -> {
+				resilience.recordCall(url, true);
+				sli.info("SLI {} {} ait={} status={} elapsed={}ns", method, EndpointTimer.path(url), config.getAitid(),
+					response.getStatusCodeValue(), System.nanoTime() - start);
+			})
+			.doOnError(ex -> {
+				resilience.recordCall(url, false);
+				sli.info("SLI {} {} ait={} failure={} elapsed={}ns", method, EndpointTimer.path(url), config.getAitid(),
+					ex.getClass().getSimpleName(), System.nanoTime() - start);
+			})
+			.toFuture();
+	}
+
+	// what RestTemplate reports as ResourceAccessException: an I/O error or timeout anywhere in the cause chain
+	private static boolean isTransportFailure(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException || cause instanceof TimeoutException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,47 @@
+package qslv.itest;
+
+import java.util.Collections;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.web.client.ResourceAccessException;
+
+/*
+ * Retries transport failures (ResourceAccessException) only, up to maxAttempts, and only while the
+ * URL's RetryBudget has tokens left. RetryTemplate asks canRetry() twice per failed attempt,
+ * so the token withdrawn for a retry is remembered in the context.
+ */
+public class BudgetedRetryPolicy extends SimpleRetryPolicy {
+	private static final long serialVersionUID = 1L;
+	private static final String GRANTED_ATTRIBUTE = "qslv.retry.granted";
+
+	private final transient RestResilience resilience;
+
+	public BudgetedRetryPolicy(int maxAttempts, RestResilience resilience) {
+		super(maxAttempts, Collections.singletonMap(ResourceAccessException.class, true));
+		this.resilience = resilience;
+	}
+
+	@Override
+	public boolean canRetry(RetryContext context) {
+		if (context.getLastThrowable() == null) {
+			return true;
+		}
+		if (!super.canRetry(context)) {
+			return false;
+		}
+		Object url = context.getAttribute(RestResilience.URL_ATTRIBUTE);
+		if (url == null) {
+			return true;
+		}
+		Integer granted = (Integer) context.getAttribute(GRANTED_ATTRIBUTE);
+		if (granted != null && granted == context.getRetryCount()) {
+			return true;
+		}
+		if (resilience.endpoint(url.toString()).getBudget().tryRetry()) {
+			context.setAttribute(GRANTED_ATTRIBUTE, context.getRetryCount());
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,228 @@
+package qslv.itest;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import qslv.transaction.resource.TransactionResource;
+
+/*
+ * COPY FROM STDIN loader for populations too large for JdbcDao's multi-row UPSERTs. Rows are generated on the fly
+ * from their index and streamed through the PostgreSQL driver's copy API, so memory does not grow with the row
+ * count. A table is cut into segments of bulkLoadSegmentRows; bulkLoadThreads connections each load one segment at
+ * a time in one explicit transaction: COPY into the worker's staging table, UPSERT ... SELECT into the table and
+ * record the segment in bulk_load_checkpoint. CockroachDB commits a COPY outside an explicit transaction in batches
+ * of its own, so only this keeps a failed segment from leaving part of its rows behind. A rerun skips the
+ * checkpointed segments; rows already present from an earlier run are upserted over where the loaded columns
+ * include the primary key. Delete a table's rows from bulk_load_checkpoint to load it again.
+ */
+@Component
+public class BulkLoader {
+	private static final Logger log = LoggerFactory.getLogger(BulkLoader.class);
+	public static String BULK_ACCOUNT = "BULK_ACCOUNT_";
+	public static String BULK_DEBIT = "BULK_DEBIT_";
+	private static final int COPY_BUFFER = 1 << 16;
+	private static final Instant HISTORY_END = Instant.parse("2020-01-01T00:00:00Z");
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired(required = false)
+	private JdbcTemplate jdbcTemplate;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public final static String createCheckpoint_sql = "CREATE TABLE IF NOT EXISTS bulk_load_checkpoint (table_name STRING NOT NULL, "
+			+ "segment INT8 NOT NULL, row_count INT8 NOT NULL, segment_rows INT8 NOT NULL, PRIMARY KEY (table_name, segment));";
+	public final static String selectCheckpointSizes_sql = "SELECT DISTINCT row_count, segment_rows FROM bulk_load_checkpoint WHERE table_name = ?;";
+	public final static String selectCheckpoints_sql = "SELECT segment FROM bulk_load_checkpoint WHERE table_name = ?;";
+	public final static String insertCheckpoint_sql = "INSERT INTO bulk_load_checkpoint (table_name, segment, row_count, segment_rows) values (?,?,?,?);";
+
+	@FunctionalInterface
+	interface RowWriter {
+		void write(long index, StringBuilder line);
+	}
+
+	public List<JdbcDao.BatchLoad> loadAll() throws Exception {
+		List<JdbcDao.BatchLoad> loads = new ArrayList<>();
+		loads.add(loadAccounts());
+		loads.add(loadBalances());
+		loads.add(loadDebits());
+		loads.add(loadOverdrafts());
+		loads.add(loadTransactions());
+		return loads;
+	}
+
+	public JdbcDao.BatchLoad loadAccounts() throws Exception {
+		return load("account", "account_no, lifecycle_status_cd", config.getBulkLoadAccounts(), (i, line) ->
+				line.append(BULK_ACCOUNT).append(i).append(',').append(LoadOperations.VALID_STATUS));
+	}
+
+	public JdbcDao.BatchLoad loadBalances() throws Exception {
+		return load("account_balance", "account_id, runningBalance_am", config.getBulkLoadAccounts(), (i, line) ->
+				line.append(BULK_ACCOUNT).append(i).append(',').append(LoadOperations.LOAD_BALANCE));
+	}
+
+	public JdbcDao.BatchLoad loadDebits() throws Exception {
+		return load("debit_card", "debit_card_no, account_no, lifecycle_status_cd", config.getBulkLoadAccounts(), (i, line) ->
+				line.append(BULK_DEBIT).append(i).append(',').append(BULK_ACCOUNT).append(i).append(',').append(LoadOperations.VALID_STATUS));
+	}
+
+	// every tenth account overdraws into the next one
+	public JdbcDao.BatchLoad loadOverdrafts() throws Exception {
+		long accounts = config.getBulkLoadAccounts();
+		return load("overdraft_instruction", "account_no, overdraft_account_no, lifecycle_status_cd, effective_start_dt, effective_end_dt, sequence",
+				(accounts + 9) / 10, (i, line) ->
+				line.append(BULK_ACCOUNT).append(i * 10).append(',').append(BULK_ACCOUNT).append((i * 10 + 1) % accounts).append(',')
+						.append(LoadOperations.VALID_STATUS).append(",2020/01/01,2030/01/01,1"));
+	}
+
+	// one posting a second back from 2020-01-01, round robin over the accounts, alternating debits and credits
+	public JdbcDao.BatchLoad loadTransactions() throws Exception {
+		long accounts = config.getBulkLoadAccounts();
+		String metaData = csv(LoadOperations.JSON_DATA);
+		return load("transaction", "transaction_uuid, request_uuid, account_id, debitCard_id, transaction_am, transactiontype_cd, "
+				+ "runningbalance_am, reservation_uuid, transactionmetadata_json, insert_tsz", config.getBulkLoadTransactions(), (i, line) ->
+				line.append(uuid("transaction", i)).append(',').append(uuid("request", i)).append(',')
+						.append(BULK_ACCOUNT).append(i % accounts).append(",,")
+						.append(i % 2 == 0 ? -100 : 100).append(',').append(TransactionResource.NORMAL).append(',')
+						.append(LoadOperations.LOAD_BALANCE).append(",,").append(metaData).append(',')
+						.append(HISTORY_END.minusSeconds(i)));
+	}
+
+	JdbcDao.BatchLoad load(String table, String columns, long rows, RowWriter rowWriter) throws Exception {
+		long segmentRows = Math.max(1, config.getBulkLoadSegmentRows());
+		long segments = (rows + segmentRows - 1) / segmentRows;
+		jdbcTemplate.execute(createCheckpoint_sql);
+		List<Map<String, Object>> sizes = jdbcTemplate.queryForList(selectCheckpointSizes_sql, table);
+		if (!sizes.isEmpty() && (((Number) sizes.get(0).get("row_count")).longValue() != rows
+				|| ((Number) sizes.get(0).get("segment_rows")).longValue() != segmentRows)) {
+			throw new IllegalStateException(String.format("%s checkpoints were written for rows=%s segmentRows=%s, not rows=%d segmentRows=%d; "
+					+ "delete them from bulk_load_checkpoint to start over.", table, sizes.get(0).get("row_count"), sizes.get(0).get("segment_rows"),
+					rows, segmentRows));
+		}
+		Set<Long> done = new HashSet<>(jdbcTemplate.queryForList(selectCheckpoints_sql, Long.class, table));
+		List<Long> pending = new ArrayList<>();
+		for (long segment = 0; segment < segments; segment++) {
+			if (!done.contains(segment)) {
+				pending.add(segment);
+			}
+		}
+		log.info("load ENTRY {} rows={} segments={} pending={}", table, rows, segments, pending.size());
+
+		DataSource dataSource = jdbcTemplate.getDataSource();
+		AtomicInteger next = new AtomicInteger();
+		long startNanos = System.nanoTime();
+		int threads = Math.max(1, config.getBulkLoadThreads());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				String stage = stage(table, t);
+				workers.add(executor.submit(() -> {
+					jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s AS SELECT %s FROM %s LIMIT 0", stage, columns, table));
+					long copied = 0;
+					for (int n = next.getAndIncrement(); n < pending.size(); n = next.getAndIncrement()) {
+						long segment = pending.get(n);
+						long first = segment * segmentRows;
+						copied += copy(dataSource, table, stage, columns, segment, rows, segmentRows, first, Math.min(rows, first + segmentRows),
+								rowWriter);
+					}
+					return copied;
+				}));
+			}
+			long copied = 0;
+			for (Future<Long> worker : workers) {
+				copied += worker.get();
+			}
+			JdbcDao.BatchLoad load = new JdbcDao.BatchLoad(table, copied, pending.size(), System.nanoTime() - startNanos);
+			log.info("load EXIT {}", load.summary());
+			return load;
+		} finally {
+			executor.shutdownNow();
+			for (int t = 0; t < threads; t++) {
+				jdbcTemplate.execute("DROP TABLE IF EXISTS " + stage(table, t));
+			}
+		}
+	}
+
+	// one transaction per segment: stage, upsert and checkpoint commit together or not at all
+	private long copy(DataSource dataSource, String table, String stage, String columns, long segment, long rows, long segmentRows,
+			long first, long last, RowWriter rowWriter) throws Exception {
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement();
+					PreparedStatement checkpoint = connection.prepareStatement(insertCheckpoint_sql)) {
+				statement.executeUpdate("DELETE FROM " + stage);
+				PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+						String.format("COPY %s (%s) FROM STDIN WITH CSV", stage, columns), COPY_BUFFER);
+				try {
+					Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER);
+					StringBuilder line = new StringBuilder(256);
+					for (long i = first; i < last; i++) {
+						line.setLength(0);
+						rowWriter.write(i, line);
+						out.append(line).append('\n');
+					}
+					out.flush();
+					copy.endCopy();
+				} catch (Exception ex) {
+					// never let close() end a half-written COPY
+					if (copy.isActive()) {
+						copy.cancelCopy();
+					}
+					throw ex;
+				}
+				long upserted = statement.executeUpdate(String.format("UPSERT INTO %s (%s) SELECT %s FROM %s", table, columns, columns, stage));
+				checkpoint.setString(1, table);
+				checkpoint.setLong(2, segment);
+				checkpoint.setLong(3, rows);
+				checkpoint.setLong(4, segmentRows);
+				checkpoint.executeUpdate();
+				connection.commit();
+				return upserted;
+			} catch (Exception ex) {
+				connection.rollback();
+				throw ex;
+			}
+		}
+	}
+
+	private static String stage(String table, int worker) {
+		return table + "_bulk_stage_" + worker;
+	}
+
+	private static String uuid(String kind, long index) {
+		return UUID.nameUUIDFromBytes((kind + ":" + index).getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	private static String csv(String value) {
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+}
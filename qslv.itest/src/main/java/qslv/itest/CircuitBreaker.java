@@ -0,0 +1,72 @@
+package qslv.itest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Consecutive-failure circuit breaker for one URL. After failureThreshold transport failures in a row
+ * calls are rejected for openNanos, then a single probe is let through: success closes the breaker,
+ * failure opens it again.
+ */
+public class CircuitBreaker {
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+
+	private final int failureThreshold;
+	private final long openNanos;
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong trips = new AtomicLong();
+	private volatile State state = State.CLOSED;
+	private volatile long openUntil;
+
+	public CircuitBreaker(int failureThreshold, long openNanos) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openNanos;
+	}
+
+	public boolean tryAcquire() {
+		if (state == State.CLOSED) {
+			return true;
+		}
+		synchronized (this) {
+			if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+				state = State.HALF_OPEN;
+				return true;
+			}
+		}
+		rejected.incrementAndGet();
+		return false;
+	}
+
+	public void recordSuccess() {
+		consecutiveFailures.set(0);
+		if (state != State.CLOSED) {
+			synchronized (this) {
+				state = State.CLOSED;
+			}
+		}
+	}
+
+	public void recordFailure() {
+		if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+			synchronized (this) {
+				if (state != State.OPEN) {
+					trips.incrementAndGet();
+				}
+				state = State.OPEN;
+				openUntil = System.nanoTime() + openNanos;
+				consecutiveFailures.set(0);
+			}
+		}
+	}
+
+	public State getState() {
+		return state;
+	}
+	public long getRejected() {
+		return rejected.get();
+	}
+	public long getTrips() {
+		return trips.get();
+	}
+}
@@ -0,0 +1,14 @@
+package qslv.itest;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	private String url;
+
+	CircuitBreakerOpenException(String url) {
+		super(String.format("Circuit breaker open for URL %s.", url));
+		this.url = url;
+	}
+	public String getUrl() {
+		return url;
+	}
+}
@@ -0,0 +1,118 @@
+package qslv.itest;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Closed-loop load: N virtual users each issue a blocking call, wait for the answer and immediately issue
+ * the next. N is stepped from sweepStartUsers to sweepMaxUsers by sweepGrowthFactor, but never past the
+ * connections the operation's HTTP pool can open: beyond them users queue for a pooled connection and the sweep
+ * would find the client's pool limit instead of the service's knee. A URL listing several instances gets
+ * restPoolMaxPerRoute per instance route, all of it bounded by restPoolMaxTotal. Operations without REST calls are
+ * not capped. Only successful calls count toward throughput and latency.
+ */
+@Component
+public class ConcurrencySweep {
+	private static final Logger log = LoggerFactory.getLogger(ConcurrencySweep.class);
+
+	@Autowired
+	private ConfigProperties config;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public SweepReport run(String name, Callable<?> operation, List<String> restUrls) throws InterruptedException {
+		int maxUsers = config.getSweepMaxUsers();
+		if (restUrls.isEmpty()) {
+			log.warn("run {} makes no REST calls, its users are not capped by the HTTP pool", name);
+		} else {
+			int connections = poolConnections(restUrls);
+			if (connections < maxUsers) {
+				maxUsers = connections;
+				log.warn("run {} capped at {} users by qslv.rest-pool-max-per-route and qslv.rest-pool-max-total; raise them to sweep further",
+						name, maxUsers);
+			}
+		}
+		log.info("run ENTRY {} users {} -> {}", name, config.getSweepStartUsers(), maxUsers);
+
+		SweepReport report = new SweepReport(name);
+		long stepNanos = TimeUnit.SECONDS.toNanos(config.getSweepStepSeconds());
+		for (int users = Math.max(1, config.getSweepStartUsers()); users <= maxUsers; users = nextUsers(users)) {
+			SweepReport.Step step = runStep(operation, users, stepNanos);
+			log.info("run {} users={} throughput={}/s {}", name, users, String.format("%.1f", step.getThroughput()), step.getLatency().summary());
+			report.addStep(step);
+		}
+		report.findKnee(config.getSweepKneeThroughputGain());
+
+		log.info("run EXIT {}", report.summary());
+		return report;
+	}
+
+	private SweepReport.Step runStep(Callable<?> operation, int users, long stepNanos) throws InterruptedException {
+		LatencyHistogram latency = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch done = new CountDownLatch(users);
+		ExecutorService executor = Executors.newFixedThreadPool(users);
+
+		long startNanos = System.nanoTime();
+		long endNanos = startNanos + stepNanos;
+		try {
+			for (int i = 0; i < users; i++) {
+				executor.execute(() -> {
+					try {
+						while (System.nanoTime() < endNanos) {
+							long callStart = System.nanoTime();
+							try {
+								operation.call();
+								latency.record(System.nanoTime() - callStart);
+							} catch (Exception ex) {
+								errors.incrementAndGet();
+								log.debug("runStep {}", ex.getLocalizedMessage());
+							}
+						}
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			done.await();
+		} finally {
+			executor.shutdownNow();
+		}
+		return new SweepReport.Step(users, System.nanoTime() - startNanos, errors.get(), latency);
+	}
+
+	// a user holds one connection at a time, so the URL with the fewest routes is the limit
+	private int poolConnections(List<String> restUrls) {
+		long routes = Long.MAX_VALUE;
+		for (String configuredUrl : restUrls) {
+			routes = Math.min(routes, Arrays.stream(configuredUrl.split(","))
+					.map(String::trim)
+					.filter(url -> !url.isEmpty())
+					.map(url -> {
+						URI uri = URI.create(url);
+						return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+					})
+					.distinct()
+					.count());
+		}
+		return (int) Math.min(config.getRestPoolMaxTotal(), Math.max(1L, routes) * config.getRestPoolMaxPerRoute());
+	}
+
+	private int nextUsers(int users) {
+		return Math.max(users + 1, (int) Math.round(users * config.getSweepGrowthFactor()));
+	}
+}
@@ -13,6 +13,11 @@ public class ConfigProperties {
 	private int restBackoffDelay;
 	private int restBackoffDelayMax;
 	private int restAttempts;
+	private int restPoolMaxTotal = 200;
+	private int restPoolMaxPerRoute = 50;
+	private long restKeepAlive = 30000;
+	private long restIdleEvict = 30000;
+	private int restValidateAfterInactivity = 2000;
 	private String reservationUrl;
 	private String transactionUrl;
 	private String reserveFundsUrl;
@@ -31,6 +36,99 @@ public class ConfigProperties {
 	private String kafkaTransferFulfillmentDeadLetterQueue;
 	private String kafkaConsumerPropertiesPath;
 	private String kafkaProducerPropertiesPath;
+	private String loadOperation = "reserveFunds";
+	private double loadStartRate = 100;
+	private double loadTargetRate = 100;
+	private int loadRampSeconds;
+	private int loadDurationSeconds = 60;
+	private int loadMaxInFlight = 10000;
+	private int loadAccounts = 100;
+	private int sweepStartUsers = 1;
+	private int sweepMaxUsers = 50;
+	private double sweepGrowthFactor = 2.0;
+	private int sweepStepSeconds = 30;
+	private double sweepKneeThroughputGain = 0.05;
+	private boolean restHedgeEnabled;
+	private double restHedgePercentile = 95.0;
+	private long restHedgeMinDelay = 10;
+	private int restHedgeMinSamples = 100;
+	private double restRetryBudgetRatio = 0.1;
+	private int restRetryBudgetReserve = 10;
+	private int restBreakerFailureThreshold = 5;
+	private long restBreakerOpenTime = 5000;
+	private String restBalancerPolicy = "p2c";
+	private int restEjectFailures = 5;
+	private long restEjectTime = 10000;
+	private boolean warmupEnabled;
+	private String warmupOperations = "postTransaction,reserveFunds";
+	private int warmupConcurrency = 8;
+	private int warmupRoundCalls = 50;
+	private double warmupSettleTolerance = 0.1;
+	private int warmupSettleRounds = 3;
+	private int warmupMaxSeconds = 60;
+	private int kafkaMaxInFlightSends = 1000;
+	private int kafkaBenchmarkMessages = 100000;
+	private String kafkaProducerProfile = "default";
+	private String kafkaTuningLingerMs = "0,5,20";
+	private String kafkaTuningBatchSizes = "16384,65536,262144";
+	private String kafkaTuningCompressionTypes = "none,lz4,zstd";
+	private String kafkaTuningMaxInFlight = "1,5";
+	private int kafkaTuningMessages = 20000;
+	private String kafkaTuningOutput = "target/producer-tuning.csv";
+	private String kafkaProducerMode = "plain";
+	private String kafkaBookkeepingTopic = "fulfillment.bookkeeping";
+	private String kafkaTransactionIdPrefix = "qslv.itest.tx-";
+	private String kafkaListenerIsolationLevel = "read_uncommitted";
+	private int kafkaGuaranteeMessages = 10000;
+	private String kafkaKeyStrategy = "accountKeyStrategy";
+	private double kafkaHotKeyShare = 0.5;
+	private String kafkaPartitioner = "";
+	private double kafkaHotPartitionRatio = 2.0;
+	private long kafkaReplyTimeout = 30000;
+	private String kafkaReplyListenerMode = "record";
+	private int kafkaReplyConcurrency = 0;
+	private int kafkaMaxPollRecords = 500;
+	private int kafkaFetchMinBytes = 1;
+	private int kafkaFetchMaxWaitMs = 500;
+	private int kafkaMaxPartitionFetchBytes = 1048576;
+	private String kafkaLagGroups = "foo";
+	private long kafkaLagSampleMillis = 1000;
+	private String kafkaLagOutput = "target/consumer-lag.csv";
+	private String kafkaLagSummaryOutput = "target/consumer-lag-summary.csv";
+	private String kafkaReplyAssignment = "group";
+	private String kafkaReplyGroupPrefix = "qslv.itest.run-";
+	private int kafkaReplyBufferCapacity = 32;
+	private String kafkaReplyBufferPolicy = "drop-oldest";
+	private String kafkaReplyBufferSpillDirectory = "target/reply-spill";
+	private String kafkaDlqReasonPatterns = "HttpClientErrorException\\.\\w+,HttpServerErrorException\\.\\w+,Missing [A-Za-z ]+,has already been finalized,\\w+Exception";
+	private int kafkaDlqTrackedRequests = 100000;
+	private long kafkaDlqIntervalMillis = 10000;
+	private boolean postingHarnessEnabled = false;
+	private double postingRate = 100.0;
+	private int postingDurationSeconds = 60;
+	private int postingAccounts = 100;
+	private double postingOverdraftShare = 0.1;
+	private int jdbcBatchRows = 500;
+	private int fixtureAccounts = 100000;
+	private long bulkLoadAccounts = 1000000;
+	private long bulkLoadTransactions = 10000000;
+	private int bulkLoadThreads = 8;
+	private long bulkLoadSegmentRows = 100000;
+	private int restHedgeMaxConcurrent = 64;
+	private String kafkaBenchTransferTopic = "online.transfer.requests.bench";
+	private String kafkaBenchCancelTopic = "cancel.fulfillment.request.queue.bench";
+	private String kafkaBenchCommitTopic = "commit.fulfillment.request.queue.bench";
+	private String kafkaBenchTransactionTopic = "transaction.fulfillment.request.queue.bench";
+	private String kafkaBenchBookkeepingTopic = "fulfillment.bookkeeping.bench";
+	private int kafkaTransactionBatch = 100;
+	private long kafkaTransactionLingerMs = 5;
+	private String postingAccountTopic = "account.bench";
+	private String postingOverdraftTopic = "overdraft.instructions.bench";
+	private String postingRequestTopic = "posting.request.bench";
+	private String postingResponseTopic = "posting.response.bench";
+	private String postingEnhancedRequestTopic = "enhanced.request.bench";
+	private String postingTransactionLogTopic = "transaction.log.bench";
+	private String postingBalanceLogTopic = "balance.log.state.store.bench";
 
 	public String getAitid() {
 		return aitid;
@@ -231,5 +329,789 @@ public class ConfigProperties {
 	public void setKafkaTransactionReplyQueue(String kafkaTransactionReplyQueue) {
 		this.kafkaTransactionReplyQueue = kafkaTransactionReplyQueue;
 	}
-	
+
+	public int getRestPoolMaxTotal() {
+		return restPoolMaxTotal;
+	}
+
+	public void setRestPoolMaxTotal(int restPoolMaxTotal) {
+		this.restPoolMaxTotal = restPoolMaxTotal;
+	}
+
+	public int getRestPoolMaxPerRoute() {
+		return restPoolMaxPerRoute;
+	}
+
+	public void setRestPoolMaxPerRoute(int restPoolMaxPerRoute) {
+		this.restPoolMaxPerRoute = restPoolMaxPerRoute;
+	}
+
+	public long getRestKeepAlive() {
+		return restKeepAlive;
+	}
+
+	public void setRestKeepAlive(long restKeepAlive) {
+		this.restKeepAlive = restKeepAlive;
+	}
+
+	public long getRestIdleEvict() {
+		return restIdleEvict;
+	}
+
+	public void setRestIdleEvict(long restIdleEvict) {
+		this.restIdleEvict = restIdleEvict;
+	}
+
+	public int getRestValidateAfterInactivity() {
+		return restValidateAfterInactivity;
+	}
+
+	public void setRestValidateAfterInactivity(int restValidateAfterInactivity) {
+		this.restValidateAfterInactivity = restValidateAfterInactivity;
+	}
+
+	public String getLoadOperation() {
+		return loadOperation;
+	}
+
+	public void setLoadOperation(String loadOperation) {
+		this.loadOperation = loadOperation;
+	}
+
+	public double getLoadStartRate() {
+		return loadStartRate;
+	}
+
+	public void setLoadStartRate(double loadStartRate) {
+		this.loadStartRate = loadStartRate;
+	}
+
+	public double getLoadTargetRate() {
+		return loadTargetRate;
+	}
+
+	public void setLoadTargetRate(double loadTargetRate) {
+		this.loadTargetRate = loadTargetRate;
+	}
+
+	public int getLoadRampSeconds() {
+		return loadRampSeconds;
+	}
+
+	public void setLoadRampSeconds(int loadRampSeconds) {
+		this.loadRampSeconds = loadRampSeconds;
+	}
+
+	public int getLoadDurationSeconds() {
+		return loadDurationSeconds;
+	}
+
+	public void setLoadDurationSeconds(int loadDurationSeconds) {
+		this.loadDurationSeconds = loadDurationSeconds;
+	}
+
+	public int getLoadMaxInFlight() {
+		return loadMaxInFlight;
+	}
+
+	public void setLoadMaxInFlight(int loadMaxInFlight) {
+		this.loadMaxInFlight = loadMaxInFlight;
+	}
+
+	public int getLoadAccounts() {
+		return loadAccounts;
+	}
+
+	public void setLoadAccounts(int loadAccounts) {
+		this.loadAccounts = loadAccounts;
+	}
+
+	public int getSweepStartUsers() {
+		return sweepStartUsers;
+	}
+
+	public void setSweepStartUsers(int sweepStartUsers) {
+		this.sweepStartUsers = sweepStartUsers;
+	}
+
+	public int getSweepMaxUsers() {
+		return sweepMaxUsers;
+	}
+
+	public void setSweepMaxUsers(int sweepMaxUsers) {
+		this.sweepMaxUsers = sweepMaxUsers;
+	}
+
+	public double getSweepGrowthFactor() {
+		return sweepGrowthFactor;
+	}
+
+	public void setSweepGrowthFactor(double sweepGrowthFactor) {
+		this.sweepGrowthFactor = sweepGrowthFactor;
+	}
+
+	public int getSweepStepSeconds() {
+		return sweepStepSeconds;
+	}
+
+	public void setSweepStepSeconds(int sweepStepSeconds) {
+		this.sweepStepSeconds = sweepStepSeconds;
+	}
+
+	public double getSweepKneeThroughputGain() {
+		return sweepKneeThroughputGain;
+	}
+
+	public void setSweepKneeThroughputGain(double sweepKneeThroughputGain) {
+		this.sweepKneeThroughputGain = sweepKneeThroughputGain;
+	}
+
+	public boolean isRestHedgeEnabled() {
+		return restHedgeEnabled;
+	}
+
+	public void setRestHedgeEnabled(boolean restHedgeEnabled) {
+		this.restHedgeEnabled = restHedgeEnabled;
+	}
+
+	public double getRestHedgePercentile() {
+		return restHedgePercentile;
+	}
+
+	public void setRestHedgePercentile(double restHedgePercentile) {
+		this.restHedgePercentile = restHedgePercentile;
+	}
+
+	public long getRestHedgeMinDelay() {
+		return restHedgeMinDelay;
+	}
+
+	public void setRestHedgeMinDelay(long restHedgeMinDelay) {
+		this.restHedgeMinDelay = restHedgeMinDelay;
+	}
+
+	public int getRestHedgeMinSamples() {
+		return restHedgeMinSamples;
+	}
+
+	public void setRestHedgeMinSamples(int restHedgeMinSamples) {
+		this.restHedgeMinSamples = restHedgeMinSamples;
+	}
+
+	public double getRestRetryBudgetRatio() {
+		return restRetryBudgetRatio;
+	}
+
+	public void setRestRetryBudgetRatio(double restRetryBudgetRatio) {
+		this.restRetryBudgetRatio = restRetryBudgetRatio;
+	}
+
+	public int getRestRetryBudgetReserve() {
+		return restRetryBudgetReserve;
+	}
+
+	public void setRestRetryBudgetReserve(int restRetryBudgetReserve) {
+		this.restRetryBudgetReserve = restRetryBudgetReserve;
+	}
+
+	public int getRestBreakerFailureThreshold() {
+		return restBreakerFailureThreshold;
+	}
+
+	public void setRestBreakerFailureThreshold(int restBreakerFailureThreshold) {
+		this.restBreakerFailureThreshold = restBreakerFailureThreshold;
+	}
+
+	public long getRestBreakerOpenTime() {
+		return restBreakerOpenTime;
+	}
+
+	public void setRestBreakerOpenTime(long restBreakerOpenTime) {
+		this.restBreakerOpenTime = restBreakerOpenTime;
+	}
+
+	public String getRestBalancerPolicy() {
+		return restBalancerPolicy;
+	}
+
+	public void setRestBalancerPolicy(String restBalancerPolicy) {
+		this.restBalancerPolicy = restBalancerPolicy;
+	}
+
+	public int getRestEjectFailures() {
+		return restEjectFailures;
+	}
+
+	public void setRestEjectFailures(int restEjectFailures) {
+		this.restEjectFailures = restEjectFailures;
+	}
+
+	public long getRestEjectTime() {
+		return restEjectTime;
+	}
+
+	public void setRestEjectTime(long restEjectTime) {
+		this.restEjectTime = restEjectTime;
+	}
+
+	public boolean isWarmupEnabled() {
+		return warmupEnabled;
+	}
+
+	public void setWarmupEnabled(boolean warmupEnabled) {
+		this.warmupEnabled = warmupEnabled;
+	}
+
+	public String getWarmupOperations() {
+		return warmupOperations;
+	}
+
+	public void setWarmupOperations(String warmupOperations) {
+		this.warmupOperations = warmupOperations;
+	}
+
+	public int getWarmupConcurrency() {
+		return warmupConcurrency;
+	}
+
+	public void setWarmupConcurrency(int warmupConcurrency) {
+		this.warmupConcurrency = warmupConcurrency;
+	}
+
+	public int getWarmupRoundCalls() {
+		return warmupRoundCalls;
+	}
+
+	public void setWarmupRoundCalls(int warmupRoundCalls) {
+		this.warmupRoundCalls = warmupRoundCalls;
+	}
+
+	public double getWarmupSettleTolerance() {
+		return warmupSettleTolerance;
+	}
+
+	public void setWarmupSettleTolerance(double warmupSettleTolerance) {
+		this.warmupSettleTolerance = warmupSettleTolerance;
+	}
+
+	public int getWarmupSettleRounds() {
+		return warmupSettleRounds;
+	}
+
+	public void setWarmupSettleRounds(int warmupSettleRounds) {
+		this.warmupSettleRounds = warmupSettleRounds;
+	}
+
+	public int getWarmupMaxSeconds() {
+		return warmupMaxSeconds;
+	}
+
+	public void setWarmupMaxSeconds(int warmupMaxSeconds) {
+		this.warmupMaxSeconds = warmupMaxSeconds;
+	}
+
+	public int getKafkaMaxInFlightSends() {
+		return kafkaMaxInFlightSends;
+	}
+
+	public void setKafkaMaxInFlightSends(int kafkaMaxInFlightSends) {
+		this.kafkaMaxInFlightSends = kafkaMaxInFlightSends;
+	}
+
+	public int getKafkaBenchmarkMessages() {
+		return kafkaBenchmarkMessages;
+	}
+
+	public void setKafkaBenchmarkMessages(int kafkaBenchmarkMessages) {
+		this.kafkaBenchmarkMessages = kafkaBenchmarkMessages;
+	}
+
+	public String getKafkaProducerProfile() {
+		return kafkaProducerProfile;
+	}
+
+	public void setKafkaProducerProfile(String kafkaProducerProfile) {
+		this.kafkaProducerProfile = kafkaProducerProfile;
+	}
+
+	public String getKafkaTuningLingerMs() {
+		return kafkaTuningLingerMs;
+	}
+
+	public void setKafkaTuningLingerMs(String kafkaTuningLingerMs) {
+		this.kafkaTuningLingerMs = kafkaTuningLingerMs;
+	}
+
+	public String getKafkaTuningBatchSizes() {
+		return kafkaTuningBatchSizes;
+	}
+
+	public void setKafkaTuningBatchSizes(String kafkaTuningBatchSizes) {
+		this.kafkaTuningBatchSizes = kafkaTuningBatchSizes;
+	}
+
+	public String getKafkaTuningCompressionTypes() {
+		return kafkaTuningCompressionTypes;
+	}
+
+	public void setKafkaTuningCompressionTypes(String kafkaTuningCompressionTypes) {
+		this.kafkaTuningCompressionTypes = kafkaTuningCompressionTypes;
+	}
+
+	public String getKafkaTuningMaxInFlight() {
+		return kafkaTuningMaxInFlight;
+	}
+
+	public void setKafkaTuningMaxInFlight(String kafkaTuningMaxInFlight) {
+		this.kafkaTuningMaxInFlight = kafkaTuningMaxInFlight;
+	}
+
+	public int getKafkaTuningMessages() {
+		return kafkaTuningMessages;
+	}
+
+	public void setKafkaTuningMessages(int kafkaTuningMessages) {
+		this.kafkaTuningMessages = kafkaTuningMessages;
+	}
+
+	public String getKafkaTuningOutput() {
+		return kafkaTuningOutput;
+	}
+
+	public void setKafkaTuningOutput(String kafkaTuningOutput) {
+		this.kafkaTuningOutput = kafkaTuningOutput;
+	}
+
+	public String getKafkaProducerMode() {
+		return kafkaProducerMode;
+	}
+
+	public void setKafkaProducerMode(String kafkaProducerMode) {
+		this.kafkaProducerMode = kafkaProducerMode;
+	}
+
+	public String getKafkaBookkeepingTopic() {
+		return kafkaBookkeepingTopic;
+	}
+
+	public void setKafkaBookkeepingTopic(String kafkaBookkeepingTopic) {
+		this.kafkaBookkeepingTopic = kafkaBookkeepingTopic;
+	}
+
+	public String getKafkaTransactionIdPrefix() {
+		return kafkaTransactionIdPrefix;
+	}
+
+	public void setKafkaTransactionIdPrefix(String kafkaTransactionIdPrefix) {
+		this.kafkaTransactionIdPrefix = kafkaTransactionIdPrefix;
+	}
+
+	public String getKafkaListenerIsolationLevel() {
+		return kafkaListenerIsolationLevel;
+	}
+
+	public void setKafkaListenerIsolationLevel(String kafkaListenerIsolationLevel) {
+		this.kafkaListenerIsolationLevel = kafkaListenerIsolationLevel;
+	}
+
+	public int getKafkaGuaranteeMessages() {
+		return kafkaGuaranteeMessages;
+	}
+
+	public void setKafkaGuaranteeMessages(int kafkaGuaranteeMessages) {
+		this.kafkaGuaranteeMessages = kafkaGuaranteeMessages;
+	}
+
+	public String getKafkaKeyStrategy() {
+		return kafkaKeyStrategy;
+	}
+
+	public void setKafkaKeyStrategy(String kafkaKeyStrategy) {
+		this.kafkaKeyStrategy = kafkaKeyStrategy;
+	}
+
+	public double getKafkaHotKeyShare() {
+		return kafkaHotKeyShare;
+	}
+
+	public void setKafkaHotKeyShare(double kafkaHotKeyShare) {
+		this.kafkaHotKeyShare = kafkaHotKeyShare;
+	}
+
+	public String getKafkaPartitioner() {
+		return kafkaPartitioner;
+	}
+
+	public void setKafkaPartitioner(String kafkaPartitioner) {
+		this.kafkaPartitioner = kafkaPartitioner;
+	}
+
+	public double getKafkaHotPartitionRatio() {
+		return kafkaHotPartitionRatio;
+	}
+
+	public void setKafkaHotPartitionRatio(double kafkaHotPartitionRatio) {
+		this.kafkaHotPartitionRatio = kafkaHotPartitionRatio;
+	}
+
+	public long getKafkaReplyTimeout() {
+		return kafkaReplyTimeout;
+	}
+
+	public void setKafkaReplyTimeout(long kafkaReplyTimeout) {
+		this.kafkaReplyTimeout = kafkaReplyTimeout;
+	}
+
+	public String getKafkaReplyListenerMode() {
+		return kafkaReplyListenerMode;
+	}
+
+	public void setKafkaReplyListenerMode(String kafkaReplyListenerMode) {
+		this.kafkaReplyListenerMode = kafkaReplyListenerMode;
+	}
+
+	public int getKafkaReplyConcurrency() {
+		return kafkaReplyConcurrency;
+	}
+
+	public void setKafkaReplyConcurrency(int kafkaReplyConcurrency) {
+		this.kafkaReplyConcurrency = kafkaReplyConcurrency;
+	}
+
+	public int getKafkaMaxPollRecords() {
+		return kafkaMaxPollRecords;
+	}
+
+	public void setKafkaMaxPollRecords(int kafkaMaxPollRecords) {
+		this.kafkaMaxPollRecords = kafkaMaxPollRecords;
+	}
+
+	public int getKafkaFetchMinBytes() {
+		return kafkaFetchMinBytes;
+	}
+
+	public void setKafkaFetchMinBytes(int kafkaFetchMinBytes) {
+		this.kafkaFetchMinBytes = kafkaFetchMinBytes;
+	}
+
+	public int getKafkaFetchMaxWaitMs() {
+		return kafkaFetchMaxWaitMs;
+	}
+
+	public void setKafkaFetchMaxWaitMs(int kafkaFetchMaxWaitMs) {
+		this.kafkaFetchMaxWaitMs = kafkaFetchMaxWaitMs;
+	}
+
+	public int getKafkaMaxPartitionFetchBytes() {
+		return kafkaMaxPartitionFetchBytes;
+	}
+
+	public void setKafkaMaxPartitionFetchBytes(int kafkaMaxPartitionFetchBytes) {
+		this.kafkaMaxPartitionFetchBytes = kafkaMaxPartitionFetchBytes;
+	}
+
+	public String getKafkaLagGroups() {
+		return kafkaLagGroups;
+	}
+
+	public void setKafkaLagGroups(String kafkaLagGroups) {
+		this.kafkaLagGroups = kafkaLagGroups;
+	}
+
+	public long getKafkaLagSampleMillis() {
+		return kafkaLagSampleMillis;
+	}
+
+	public void setKafkaLagSampleMillis(long kafkaLagSampleMillis) {
+		this.kafkaLagSampleMillis = kafkaLagSampleMillis;
+	}
+
+	public String getKafkaLagOutput() {
+		return kafkaLagOutput;
+	}
+
+	public void setKafkaLagOutput(String kafkaLagOutput) {
+		this.kafkaLagOutput = kafkaLagOutput;
+	}
+
+	public String getKafkaLagSummaryOutput() {
+		return kafkaLagSummaryOutput;
+	}
+
+	public void setKafkaLagSummaryOutput(String kafkaLagSummaryOutput) {
+		this.kafkaLagSummaryOutput = kafkaLagSummaryOutput;
+	}
+
+	public String getKafkaReplyAssignment() {
+		return kafkaReplyAssignment;
+	}
+
+	public void setKafkaReplyAssignment(String kafkaReplyAssignment) {
+		this.kafkaReplyAssignment = kafkaReplyAssignment;
+	}
+
+	public String getKafkaReplyGroupPrefix() {
+		return kafkaReplyGroupPrefix;
+	}
+
+	public void setKafkaReplyGroupPrefix(String kafkaReplyGroupPrefix) {
+		this.kafkaReplyGroupPrefix = kafkaReplyGroupPrefix;
+	}
+
+	public int getKafkaReplyBufferCapacity() {
+		return kafkaReplyBufferCapacity;
+	}
+
+	public void setKafkaReplyBufferCapacity(int kafkaReplyBufferCapacity) {
+		this.kafkaReplyBufferCapacity = kafkaReplyBufferCapacity;
+	}
+
+	public String getKafkaReplyBufferPolicy() {
+		return kafkaReplyBufferPolicy;
+	}
+
+	public void setKafkaReplyBufferPolicy(String kafkaReplyBufferPolicy) {
+		this.kafkaReplyBufferPolicy = kafkaReplyBufferPolicy;
+	}
+
+	public String getKafkaReplyBufferSpillDirectory() {
+		return kafkaReplyBufferSpillDirectory;
+	}
+
+	public void setKafkaReplyBufferSpillDirectory(String kafkaReplyBufferSpillDirectory) {
+		this.kafkaReplyBufferSpillDirectory = kafkaReplyBufferSpillDirectory;
+	}
+
+	public String getKafkaDlqReasonPatterns() {
+		return kafkaDlqReasonPatterns;
+	}
+
+	public void setKafkaDlqReasonPatterns(String kafkaDlqReasonPatterns) {
+		this.kafkaDlqReasonPatterns = kafkaDlqReasonPatterns;
+	}
+
+	public int getKafkaDlqTrackedRequests() {
+		return kafkaDlqTrackedRequests;
+	}
+
+	public void setKafkaDlqTrackedRequests(int kafkaDlqTrackedRequests) {
+		this.kafkaDlqTrackedRequests = kafkaDlqTrackedRequests;
+	}
+
+	public long getKafkaDlqIntervalMillis() {
+		return kafkaDlqIntervalMillis;
+	}
+
+	public void setKafkaDlqIntervalMillis(long kafkaDlqIntervalMillis) {
+		this.kafkaDlqIntervalMillis = kafkaDlqIntervalMillis;
+	}
+
+	public boolean isPostingHarnessEnabled() {
+		return postingHarnessEnabled;
+	}
+
+	public void setPostingHarnessEnabled(boolean postingHarnessEnabled) {
+		this.postingHarnessEnabled = postingHarnessEnabled;
+	}
+
+	public double getPostingRate() {
+		return postingRate;
+	}
+
+	public void setPostingRate(double postingRate) {
+		this.postingRate = postingRate;
+	}
+
+	public int getPostingDurationSeconds() {
+		return postingDurationSeconds;
+	}
+
+	public void setPostingDurationSeconds(int postingDurationSeconds) {
+		this.postingDurationSeconds = postingDurationSeconds;
+	}
+
+	public int getPostingAccounts() {
+		return postingAccounts;
+	}
+
+	public void setPostingAccounts(int postingAccounts) {
+		this.postingAccounts = postingAccounts;
+	}
+
+	public double getPostingOverdraftShare() {
+		return postingOverdraftShare;
+	}
+
+	public void setPostingOverdraftShare(double postingOverdraftShare) {
+		this.postingOverdraftShare = postingOverdraftShare;
+	}
+
+	public int getJdbcBatchRows() {
+		return jdbcBatchRows;
+	}
+
+	public void setJdbcBatchRows(int jdbcBatchRows) {
+		this.jdbcBatchRows = jdbcBatchRows;
+	}
+
+	public int getFixtureAccounts() {
+		return fixtureAccounts;
+	}
+
+	public void setFixtureAccounts(int fixtureAccounts) {
+		this.fixtureAccounts = fixtureAccounts;
+	}
+
+	public long getBulkLoadAccounts() {
+		return bulkLoadAccounts;
+	}
+
+	public void setBulkLoadAccounts(long bulkLoadAccounts) {
+		this.bulkLoadAccounts = bulkLoadAccounts;
+	}
+
+	public long getBulkLoadTransactions() {
+		return bulkLoadTransactions;
+	}
+
+	public void setBulkLoadTransactions(long bulkLoadTransactions) {
+		this.bulkLoadTransactions = bulkLoadTransactions;
+	}
+
+	public int getBulkLoadThreads() {
+		return bulkLoadThreads;
+	}
+
+	public void setBulkLoadThreads(int bulkLoadThreads) {
+		this.bulkLoadThreads = bulkLoadThreads;
+	}
+
+	public long getBulkLoadSegmentRows() {
+		return bulkLoadSegmentRows;
+	}
+
+	public void setBulkLoadSegmentRows(long bulkLoadSegmentRows) {
+		this.bulkLoadSegmentRows = bulkLoadSegmentRows;
+	}
+
+	public int getRestHedgeMaxConcurrent() {
+		return restHedgeMaxConcurrent;
+	}
+
+	public void setRestHedgeMaxConcurrent(int restHedgeMaxConcurrent) {
+		this.restHedgeMaxConcurrent = restHedgeMaxConcurrent;
+	}
+
+	public String getKafkaBenchTransferTopic() {
+		return kafkaBenchTransferTopic;
+	}
+
+	public void setKafkaBenchTransferTopic(String kafkaBenchTransferTopic) {
+		this.kafkaBenchTransferTopic = kafkaBenchTransferTopic;
+	}
+
+	public String getKafkaBenchCancelTopic() {
+		return kafkaBenchCancelTopic;
+	}
+
+	public void setKafkaBenchCancelTopic(String kafkaBenchCancelTopic) {
+		this.kafkaBenchCancelTopic = kafkaBenchCancelTopic;
+	}
+
+	public String getKafkaBenchCommitTopic() {
+		return kafkaBenchCommitTopic;
+	}
+
+	public void setKafkaBenchCommitTopic(String kafkaBenchCommitTopic) {
+		this.kafkaBenchCommitTopic = kafkaBenchCommitTopic;
+	}
+
+	public String getKafkaBenchTransactionTopic() {
+		return kafkaBenchTransactionTopic;
+	}
+
+	public void setKafkaBenchTransactionTopic(String kafkaBenchTransactionTopic) {
+		this.kafkaBenchTransactionTopic = kafkaBenchTransactionTopic;
+	}
+
+	public String getKafkaBenchBookkeepingTopic() {
+		return kafkaBenchBookkeepingTopic;
+	}
+
+	public void setKafkaBenchBookkeepingTopic(String kafkaBenchBookkeepingTopic) {
+		this.kafkaBenchBookkeepingTopic = kafkaBenchBookkeepingTopic;
+	}
+
+	public int getKafkaTransactionBatch() {
+		return kafkaTransactionBatch;
+	}
+
+	public void setKafkaTransactionBatch(int kafkaTransactionBatch) {
+		this.kafkaTransactionBatch = kafkaTransactionBatch;
+	}
+
+	public long getKafkaTransactionLingerMs() {
+		return kafkaTransactionLingerMs;
+	}
+
+	public void setKafkaTransactionLingerMs(long kafkaTransactionLingerMs) {
+		this.kafkaTransactionLingerMs = kafkaTransactionLingerMs;
+	}
+
+	public String getPostingAccountTopic() {
+		return postingAccountTopic;
+	}
+
+	public void setPostingAccountTopic(String postingAccountTopic) {
+		this.postingAccountTopic = postingAccountTopic;
+	}
+
+	public String getPostingOverdraftTopic() {
+		return postingOverdraftTopic;
+	}
+
+	public void setPostingOverdraftTopic(String postingOverdraftTopic) {
+		this.postingOverdraftTopic = postingOverdraftTopic;
+	}
+
+	public String getPostingRequestTopic() {
+		return postingRequestTopic;
+	}
+
+	public void setPostingRequestTopic(String postingRequestTopic) {
+		this.postingRequestTopic = postingRequestTopic;
+	}
+
+	public String getPostingResponseTopic() {
+		return postingResponseTopic;
+	}
+
+	public void setPostingResponseTopic(String postingResponseTopic) {
+		this.postingResponseTopic = postingResponseTopic;
+	}
+
+	public String getPostingEnhancedRequestTopic() {
+		return postingEnhancedRequestTopic;
+	}
+
+	public void setPostingEnhancedRequestTopic(String postingEnhancedRequestTopic) {
+		this.postingEnhancedRequestTopic = postingEnhancedRequestTopic;
+	}
+
+	public String getPostingTransactionLogTopic() {
+		return postingTransactionLogTopic;
+	}
+
+	public void setPostingTransactionLogTopic(String postingTransactionLogTopic) {
+		this.postingTransactionLogTopic = postingTransactionLogTopic;
+	}
+
+	public String getPostingBalanceLogTopic() {
+		return postingBalanceLogTopic;
+	}
+
+	public void setPostingBalanceLogTopic(String postingBalanceLogTopic) {
+		this.postingBalanceLogTopic = postingBalanceLogTopic;
+	}
+
 }
@@ -0,0 +1,296 @@
+package qslv.itest;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Samples, every kafkaLagSampleMillis while started, the end offsets of the fulfillment request and reply topics
+ * and the committed offsets of the kafkaLagGroups consumer groups (ours on the reply topics), of every group found
+ * at start() with offsets committed on a request topic (the fulfillment services'), plus the per-run group of
+ * AssignedReplyConsumers when the reply listeners run assigned, through an AdminClient on the listener properties.
+ * start() warns when no group consumes a request topic, as the service-side lag is then not sampled. Each sample is
+ * one row per group and topic it consumes: lag, produce rate and consume rate. stop() writes the series to
+ * kafkaLagOutput and a per group and topic summary to kafkaLagSummaryOutput.
+ */
+@Component
+public class ConsumerLagMonitor {
+	private static final Logger log = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+	public static final String CSV_HEADER = "elapsed_ms,group,topic,end_offset,committed_offset,lag,produce_per_sec,consume_per_sec";
+	public static final String SUMMARY_HEADER = "group,topic,samples,lag_mean,lag_max,lag_final,produce_per_sec_mean,consume_per_sec_mean";
+
+	@Autowired
+	private ConfigProperties config;
+	@Resource(name = "listenerConfig")
+	private Map<String, Object> listenerConfig;
+	@Autowired
+	private AssignedReplyConsumers assignedReplyConsumers;
+
+	private ScheduledExecutorService sampler;
+	private AdminClient admin;
+	private List<TopicPartition> partitions;
+	private long startNanos;
+	private long lastNanos;
+	private Map<String, Long> lastEnd;
+	private Map<String, Long> lastCommitted;
+	private List<String> requestGroups = new ArrayList<>();
+	private final List<Sample> samples = new ArrayList<>();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class Sample {
+		private final long elapsedMillis;
+		private final String group;
+		private final String topic;
+		private final long endOffset;
+		private final long committedOffset;
+		private final long lag;
+		private final double producePerSec;
+		private final double consumePerSec;
+
+		Sample(long elapsedMillis, String group, String topic, long endOffset, long committedOffset, long lag,
+				double producePerSec, double consumePerSec) {
+			this.elapsedMillis = elapsedMillis;
+			this.group = group;
+			this.topic = topic;
+			this.endOffset = endOffset;
+			this.committedOffset = committedOffset;
+			this.lag = lag;
+			this.producePerSec = producePerSec;
+			this.consumePerSec = consumePerSec;
+		}
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+		public String getGroup() {
+			return group;
+		}
+		public String getTopic() {
+			return topic;
+		}
+		public long getEndOffset() {
+			return endOffset;
+		}
+		public long getCommittedOffset() {
+			return committedOffset;
+		}
+		public long getLag() {
+			return lag;
+		}
+		public double getProducePerSec() {
+			return producePerSec;
+		}
+		public double getConsumePerSec() {
+			return consumePerSec;
+		}
+		String csv() {
+			return String.format(Locale.ROOT, "%d,%s,%s,%d,%d,%d,%.1f,%.1f", elapsedMillis, group, topic, endOffset,
+					committedOffset, lag, producePerSec, consumePerSec);
+		}
+	}
+
+	public synchronized void start() throws Exception {
+		if (sampler != null) {
+			return;
+		}
+		admin = AdminClient.create(listenerConfig);
+		partitions = new ArrayList<>();
+		for (TopicDescription description : admin.describeTopics(topics()).all().get().values()) {
+			description.partitions().forEach(partition -> partitions.add(new TopicPartition(description.name(), partition.partition())));
+		}
+		requestGroups = requestGroups();
+		if (requestGroups.isEmpty()) {
+			log.warn("start no consumer group has committed offsets on the request topics {}; the fulfillment services' lag "
+					+ "is not sampled; are the services consuming from this cluster?", requestTopics());
+		}
+		samples.clear();
+		lastEnd = null;
+		lastCommitted = null;
+		startNanos = System.nanoTime();
+		log.info("start {} partitions, groups {}", partitions.size(), groups());
+
+		sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "consumer-lag");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(this::sampleQuietly, 0, config.getKafkaLagSampleMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	public List<Sample> stop() throws Exception {
+		synchronized (this) {
+			if (sampler == null) {
+				return new ArrayList<>();
+			}
+			sampler.shutdown();
+		}
+		sampler.awaitTermination(1, TimeUnit.MINUTES);
+		synchronized (this) {
+			sample();
+			admin.close();
+			sampler = null;
+			admin = null;
+			write();
+			return new ArrayList<>(samples);
+		}
+	}
+
+	private synchronized void sampleQuietly() {
+		try {
+			sample();
+		} catch (Exception ex) {
+			log.warn("sample {}", ex.getLocalizedMessage());
+		}
+	}
+
+	private void sample() throws Exception {
+		long now = System.nanoTime();
+		Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+		partitions.forEach(partition -> latest.put(partition, OffsetSpec.latest()));
+		Map<TopicPartition, ListOffsetsResultInfo> endOffsets = admin.listOffsets(latest).all().get();
+
+		Map<String, Long> end = new HashMap<>();
+		Map<String, Long> committed = new HashMap<>();
+		Map<String, Long> lag = new LinkedHashMap<>();
+		for (String group : groups()) {
+			Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(group).partitionsToOffsetAndMetadata().get();
+			for (TopicPartition partition : partitions) {
+				OffsetAndMetadata offset = offsets.get(partition);
+				ListOffsetsResultInfo endOffset = endOffsets.get(partition);
+				if (offset == null || endOffset == null) {
+					// the group does not consume this partition
+					continue;
+				}
+				String key = group + "," + partition.topic();
+				end.merge(key, endOffset.offset(), Long::sum);
+				committed.merge(key, offset.offset(), Long::sum);
+				lag.merge(key, Math.max(0L, endOffset.offset() - offset.offset()), Long::sum);
+			}
+		}
+
+		double seconds = (now - lastNanos) / 1e9;
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - startNanos);
+		lag.forEach((key, value) -> {
+			String[] groupTopic = key.split(",", 2);
+			double produceRate = lastEnd == null || !lastEnd.containsKey(key) ? 0.0 : (end.get(key) - lastEnd.get(key)) / seconds;
+			double consumeRate = lastCommitted == null || !lastCommitted.containsKey(key) ? 0.0
+					: (committed.get(key) - lastCommitted.get(key)) / seconds;
+			samples.add(new Sample(elapsedMillis, groupTopic[0], groupTopic[1], end.get(key), committed.get(key), value,
+					produceRate, consumeRate));
+		});
+		lastEnd = end;
+		lastCommitted = committed;
+		lastNanos = now;
+	}
+
+	private void write() throws Exception {
+		Path output = path(config.getKafkaLagOutput());
+		try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+			csv.println(CSV_HEADER);
+			samples.forEach(sample -> csv.println(sample.csv()));
+		}
+
+		Path summaryOutput = path(config.getKafkaLagSummaryOutput());
+		Map<String, List<Sample>> byGroupTopic = samples.stream()
+				.collect(Collectors.groupingBy(sample -> sample.getGroup() + "," + sample.getTopic(), LinkedHashMap::new, Collectors.toList()));
+		try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(summaryOutput, StandardCharsets.UTF_8))) {
+			csv.println(SUMMARY_HEADER);
+			byGroupTopic.forEach((key, series) -> {
+				// the first sample of a series has no rate yet
+				List<Sample> rated = series.subList(Math.min(1, series.size()), series.size());
+				String row = String.format(Locale.ROOT, "%s,%d,%.1f,%d,%d,%.1f,%.1f", key, series.size(),
+						series.stream().mapToLong(Sample::getLag).average().orElse(0.0),
+						series.stream().mapToLong(Sample::getLag).max().orElse(0L),
+						series.get(series.size() - 1).getLag(),
+						rated.stream().mapToDouble(Sample::getProducePerSec).average().orElse(0.0),
+						rated.stream().mapToDouble(Sample::getConsumePerSec).average().orElse(0.0));
+				log.info("summary {}", row);
+				csv.println(row);
+			});
+		}
+		log.info("write {} samples -> {}, summary -> {}", samples.size(), output, summaryOutput);
+	}
+
+	private static Path path(String name) throws Exception {
+		Path path = Paths.get(name);
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		return path;
+	}
+
+	private List<String> topics() {
+		List<String> topics = new ArrayList<>(requestTopics());
+		topics.addAll(Arrays.asList(config.getKafkaCancelReplyQueue(), config.getKafkaCommitReplyQueue(), config.getKafkaTransactionReplyQueue()));
+		return topics;
+	}
+
+	private List<String> requestTopics() {
+		return Arrays.asList(config.getKafkaTransferRequestQueue(), config.getKafkaCancelRequestQueue(),
+				config.getKafkaCommitRequestQueue(), config.getKafkaTransactionRequestQueue());
+	}
+
+	// every group on the cluster, configured or not, that has committed offsets on a request topic
+	private List<String> requestGroups() throws Exception {
+		List<String> topics = requestTopics();
+		List<String> found = new ArrayList<>();
+		for (ConsumerGroupListing listing : admin.listConsumerGroups().all().get()) {
+			Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(listing.groupId())
+					.partitionsToOffsetAndMetadata().get();
+			if (offsets.keySet().stream().anyMatch(partition -> topics.contains(partition.topic()))) {
+				found.add(listing.groupId());
+			}
+		}
+		return found;
+	}
+
+	private List<String> groups() {
+		List<String> groups = Arrays.stream(config.getKafkaLagGroups().split(",")).map(String::trim).filter(group -> !group.isEmpty())
+				.collect(Collectors.toList());
+		requestGroups.stream().filter(group -> !groups.contains(group)).forEach(groups::add);
+		String assignedGroup = assignedReplyConsumers.getGroupId();
+		if (assignedGroup != null && !groups.contains(assignedGroup)) {
+			groups.add(assignedGroup);
+		}
+		return groups;
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (sampler != null) {
+			sampler.shutdownNow();
+			admin.close();
+			sampler = null;
+		}
+	}
+}
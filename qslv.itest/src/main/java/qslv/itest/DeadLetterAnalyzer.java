@@ -0,0 +1,255 @@
+package qslv.itest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Poison traffic on the transfer fulfillment path. Every transfer request seen on online.transfer.requests is
+ * counted and its requestUuid remembered; past kafkaDlqTrackedRequests the oldest ones are forgotten (evicted), so
+ * a long soak run keeps matching its recent requests. Every dead letter is parsed for its failure
+ * reason (first kafkaDlqReasonPatterns match), source message type and requestUuid, then matched back to its request,
+ * which gives the request-to-dead-letter delay. Requests and dead letters are also bucketed per kafkaDlqIntervalMillis
+ * so the dead letter rate can be read against the good traffic rate over a run.
+ */
+@Component
+public class DeadLetterAnalyzer implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(DeadLetterAnalyzer.class);
+	public static final String UNKNOWN = "unknown";
+	private static final Pattern REQUEST_UUID = Pattern.compile(
+			"requestUuid\\W{0,3}([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})", Pattern.CASE_INSENSITIVE);
+	private static final Pattern MESSAGE_TYPE = Pattern.compile("\\b([A-Z]\\w*(?:Message|Request))\\b");
+	private static final List<String> WRAPPERS = Arrays.asList("TraceableMessage", "ResponseMessage");
+
+	@Autowired
+	private ConfigProperties config;
+
+	private List<Pattern> reasonPatterns;
+	// insertion ordered, guarded by itself
+	private final Map<UUID, Long> requests = new LinkedHashMap<UUID, Long>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+			if (size() > Math.max(1, config.getKafkaDlqTrackedRequests())) {
+				evicted.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	};
+	private final Map<String, AtomicLong> byReason = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> byMessageType = new ConcurrentHashMap<>();
+	private final Map<Long, Interval> intervals = new ConcurrentSkipListMap<>();
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong evicted = new AtomicLong();
+	private final AtomicLong deadLetters = new AtomicLong();
+	private final AtomicLong matched = new AtomicLong();
+	private final AtomicLong withoutRequestUuid = new AtomicLong();
+	private final LatencyHistogram timeToDeadLetter = new LatencyHistogram();
+	private volatile long startNanos = System.nanoTime();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	@PostConstruct
+	public void init() {
+		reasonPatterns = Arrays.stream(config.getKafkaDlqReasonPatterns().split(","))
+				.map(String::trim)
+				.filter(pattern -> !pattern.isEmpty())
+				.map(Pattern::compile)
+				.collect(Collectors.toList());
+	}
+
+	public static class Interval {
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong deadLetters = new AtomicLong();
+
+		public long getRequests() {
+			return requests.get();
+		}
+		public long getDeadLetters() {
+			return deadLetters.get();
+		}
+		public double getDeadLetterRatio() {
+			return requests.get() == 0 ? 0.0 : (double) deadLetters.get() / requests.get();
+		}
+	}
+
+	public static class DeadLetter {
+		private final String reason;
+		private final String messageType;
+		private final UUID requestUuid;
+
+		DeadLetter(String reason, String messageType, UUID requestUuid) {
+			this.reason = reason;
+			this.messageType = messageType;
+			this.requestUuid = requestUuid;
+		}
+		public String getReason() {
+			return reason;
+		}
+		public String getMessageType() {
+			return messageType;
+		}
+		public UUID getRequestUuid() {
+			return requestUuid;
+		}
+	}
+
+	public void request(UUID requestUuid) {
+		long now = System.nanoTime();
+		requestCount.incrementAndGet();
+		interval(now).requests.incrementAndGet();
+		if (requestUuid == null) {
+			return;
+		}
+		synchronized (requests) {
+			requests.putIfAbsent(requestUuid, now);
+		}
+	}
+
+	public DeadLetter deadLetter(String message) {
+		long now = System.nanoTime();
+		DeadLetter parsed = parse(message);
+		deadLetters.incrementAndGet();
+		interval(now).deadLetters.incrementAndGet();
+		byReason.computeIfAbsent(parsed.getReason(), k -> new AtomicLong()).incrementAndGet();
+		byMessageType.computeIfAbsent(parsed.getMessageType(), k -> new AtomicLong()).incrementAndGet();
+
+		if (parsed.getRequestUuid() == null) {
+			withoutRequestUuid.incrementAndGet();
+		} else {
+			// a redelivered request dead-letters again; the first sighting is the one that counts
+			Long requested;
+			synchronized (requests) {
+				requested = requests.remove(parsed.getRequestUuid());
+			}
+			if (requested != null) {
+				matched.incrementAndGet();
+				timeToDeadLetter.record(now - requested);
+			}
+		}
+		return parsed;
+	}
+
+	public DeadLetter parse(String message) {
+		String text = message == null ? "" : message;
+		String reason = UNKNOWN;
+		for (Pattern pattern : reasonPatterns) {
+			Matcher matcher = pattern.matcher(text);
+			if (matcher.find()) {
+				reason = matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+				break;
+			}
+		}
+		String messageType = UNKNOWN;
+		Matcher type = MESSAGE_TYPE.matcher(text);
+		while (type.find()) {
+			// the envelope types wrap every payload; the payload type is the one worth grouping by
+			if (!WRAPPERS.contains(type.group(1))) {
+				messageType = type.group(1);
+				break;
+			}
+		}
+		Matcher uuid = REQUEST_UUID.matcher(text);
+		return new DeadLetter(reason, messageType, uuid.find() ? UUID.fromString(uuid.group(1)) : null);
+	}
+
+	private Interval interval(long nanos) {
+		long bucket = TimeUnit.NANOSECONDS.toMillis(nanos - startNanos) / Math.max(1L, config.getKafkaDlqIntervalMillis());
+		return intervals.computeIfAbsent(bucket, k -> new Interval());
+	}
+
+	public Map<String, Long> getByReason() {
+		return counts(byReason);
+	}
+
+	public Map<String, Long> getByMessageType() {
+		return counts(byMessageType);
+	}
+
+	private static Map<String, Long> counts(Map<String, AtomicLong> counters) {
+		Map<String, Long> counts = new TreeMap<>();
+		counters.forEach((key, count) -> counts.put(key, count.get()));
+		return counts;
+	}
+
+	// keyed by interval start, in ms from the last reset
+	public Map<Long, Interval> getIntervals() {
+		Map<Long, Interval> byStart = new TreeMap<>();
+		intervals.forEach((bucket, interval) -> byStart.put(bucket * config.getKafkaDlqIntervalMillis(), interval));
+		return byStart;
+	}
+
+	public long getRequests() {
+		return requestCount.get();
+	}
+
+	public long getDeadLetters() {
+		return deadLetters.get();
+	}
+
+	public long getMatched() {
+		return matched.get();
+	}
+
+	public long getWithoutRequestUuid() {
+		return withoutRequestUuid.get();
+	}
+
+	// requests forgotten before any dead letter matched them
+	public long getEvicted() {
+		return evicted.get();
+	}
+
+	public LatencyHistogram getTimeToDeadLetter() {
+		return timeToDeadLetter;
+	}
+
+	@Override
+	public void reset() {
+		startNanos = System.nanoTime();
+		synchronized (requests) {
+			requests.clear();
+		}
+		byReason.clear();
+		byMessageType.clear();
+		intervals.clear();
+		requestCount.set(0);
+		evicted.set(0);
+		deadLetters.set(0);
+		matched.set(0);
+		withoutRequestUuid.set(0);
+		timeToDeadLetter.reset();
+	}
+
+	public void logStatistics() {
+		log.info("requests={} deadLetters={} ratio={} matched={} withoutRequestUuid={} evicted={}", getRequests(),
+				getDeadLetters(), String.format("%.4f", getRequests() == 0 ? 0.0 : (double) getDeadLetters() / getRequests()),
+				getMatched(), getWithoutRequestUuid(), getEvicted());
+		getByReason().forEach((reason, count) -> log.info("reason {} {}", reason, count));
+		getByMessageType().forEach((type, count) -> log.info("type {} {}", type, count));
+		getIntervals().forEach((start, interval) -> log.info("interval {}ms requests={} deadLetters={} ratio={}", start,
+				interval.getRequests(), interval.getDeadLetters(), String.format("%.4f", interval.getDeadLetterRatio())));
+		log.info("timeToDeadLetter {}", timeToDeadLetter.summary());
+	}
+}
@@ -0,0 +1,53 @@
+package qslv.itest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+
+/*
+ * "Decorrelated jitter" backoff: each sleep is drawn uniformly from [initial, 3 * previous sleep], capped at max.
+ * Spreads retries from many clients instead of having them retry in lock step.
+ */
+public class DecorrelatedJitterBackOffPolicy implements BackOffPolicy {
+	private final long initialInterval;
+	private final long maxInterval;
+
+	public DecorrelatedJitterBackOffPolicy(long initialInterval, long maxInterval) {
+		this.initialInterval = Math.max(1L, initialInterval);
+		this.maxInterval = Math.max(this.initialInterval, maxInterval);
+	}
+
+	private static class JitterContext implements BackOffContext {
+		private static final long serialVersionUID = 1L;
+		private long previous;
+
+		JitterContext(long initial) {
+			previous = initial;
+		}
+	}
+
+	@Override
+	public BackOffContext start(RetryContext context) {
+		return new JitterContext(initialInterval);
+	}
+
+	@Override
+	public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+		JitterContext context = (JitterContext) backOffContext;
+		context.previous = nextInterval(context.previous, initialInterval, maxInterval);
+		try {
+			Thread.sleep(context.previous);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BackOffInterruptedException("Thread interrupted while sleeping", ex);
+		}
+	}
+
+	public static long nextInterval(long previous, long initialInterval, long maxInterval) {
+		long upper = Math.max(initialInterval + 1, previous * 3);
+		return Math.min(maxInterval, ThreadLocalRandom.current().nextLong(initialInterval, upper));
+	}
+}
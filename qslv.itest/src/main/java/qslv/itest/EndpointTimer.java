@@ -0,0 +1,99 @@
+package qslv.itest;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+/*
+ * Per-attempt REST timings tagged with method, URL path and HTTP status class ("POST /ReserveFunds 2xx").
+ * Labels and histograms are resolved once per URL and cached, so recording costs two array
+ * lookups and a histogram increment.
+ */
+@Component
+public class EndpointTimer implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(EndpointTimer.class);
+	public static final int TRANSPORT_FAILURE = 0;
+	private static final String[] STATUS_CLASSES = { "IOERR", "1xx", "2xx", "3xx", "4xx", "5xx" };
+	private static final HttpMethod[] METHODS = HttpMethod.values();
+
+	private final Map<String, Series[]> seriesByUrl = new ConcurrentHashMap<>();
+
+	public static class Series {
+		private final String label;
+		private final LatencyHistogram[] byStatus = new LatencyHistogram[STATUS_CLASSES.length];
+
+		Series(String label) {
+			this.label = label;
+			for (int i = 0; i < byStatus.length; i++) {
+				byStatus[i] = new LatencyHistogram();
+			}
+		}
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	public void record(String url, HttpMethod method, int statusCode, long nanos) {
+		Series[] series = seriesByUrl.computeIfAbsent(url, EndpointTimer::newSeries);
+		series[method.ordinal()].byStatus[statusClass(statusCode)].record(nanos);
+	}
+
+	public static int statusClass(int statusCode) {
+		int statusClass = statusCode / 100;
+		return statusClass >= 1 && statusClass <= 5 ? statusClass : TRANSPORT_FAILURE;
+	}
+
+	public Map<String, LatencyHistogram> getTimings() {
+		Map<String, LatencyHistogram> timings = new TreeMap<>();
+		for (Series[] series : seriesByUrl.values()) {
+			for (Series methodSeries : series) {
+				for (int i = 0; i < STATUS_CLASSES.length; i++) {
+					if (methodSeries.byStatus[i].getCount() > 0) {
+						// instances of one service share a path, so their series merge under one label
+						timings.computeIfAbsent(methodSeries.label + " " + STATUS_CLASSES[i], k -> new LatencyHistogram())
+							.add(methodSeries.byStatus[i]);
+					}
+				}
+			}
+		}
+		return timings;
+	}
+
+	@Override
+	public void reset() {
+		seriesByUrl.clear();
+	}
+
+	public void logStatistics() {
+		getTimings().forEach((label, histogram) -> log.info("{} {}", label, histogram.summary()));
+	}
+
+	private static Series[] newSeries(String url) {
+		String path = resolvePath(url);
+		Series[] series = new Series[METHODS.length];
+		for (HttpMethod method : METHODS) {
+			series[method.ordinal()] = new Series(method.name() + " " + path);
+		}
+		return series;
+	}
+
+	// the path of a configured *-url; its instances share it
+	public static String path(String configuredUrl) {
+		return resolvePath(configuredUrl.split(",")[0].trim());
+	}
+
+	private static String resolvePath(String url) {
+		try {
+			String path = URI.create(url).getPath();
+			return path == null || path.isEmpty() ? "/" : path;
+		} catch (IllegalArgumentException ex) {
+			return url;
+		}
+	}
+}
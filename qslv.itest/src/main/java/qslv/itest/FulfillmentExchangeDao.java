@@ -0,0 +1,76 @@
+package qslv.itest;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.transaction.request.CancelReservationRequest;
+import qslv.transaction.request.CommitReservationRequest;
+import qslv.transaction.request.TransactionRequest;
+import qslv.transaction.response.CancelReservationResponse;
+import qslv.transaction.response.CommitReservationResponse;
+import qslv.transaction.response.TransactionResponse;
+
+/*
+ * Request/reply over the fulfillment topics. Each exchange registers with the ReplyRouter, produces through the
+ * pipelined KafkaProducerDao path and completes with its own reply, so any number can be in flight at once.
+ */
+@Repository
+public class FulfillmentExchangeDao {
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	private ReplyRouter replyRouter;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+	public void setKafkaProducerDao(KafkaProducerDao kafkaProducerDao) {
+		this.kafkaProducerDao = kafkaProducerDao;
+	}
+	public void setReplyRouter(ReplyRouter replyRouter) {
+		this.replyRouter = replyRouter;
+	}
+
+	public CompletableFuture<TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>>>
+			exchangeCancelMessage(TraceableMessage<CancelReservationRequest> tfr) {
+		return exchange(config.getKafkaCancelReplyQueue(), tfr.getPayload() == null ? null : tfr.getPayload().getRequestUuid(),
+				tfr.getCorrelationId(), () -> kafkaProducerDao.produceCancelMessageAsync(tfr));
+	}
+
+	public CompletableFuture<TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>>>
+			exchangeCommitMessage(TraceableMessage<CommitReservationRequest> tfr) {
+		return exchange(config.getKafkaCommitReplyQueue(), tfr.getPayload() == null ? null : tfr.getPayload().getRequestUuid(),
+				tfr.getCorrelationId(), () -> kafkaProducerDao.produceCommitMessageAsync(tfr));
+	}
+
+	public CompletableFuture<TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>>>
+			exchangeTransactionMessage(TraceableMessage<TransactionRequest> tfr) {
+		return exchange(config.getKafkaTransactionReplyQueue(), tfr.getPayload() == null ? null : tfr.getPayload().getRequestUuid(),
+				tfr.getCorrelationId(), () -> kafkaProducerDao.produceTransactionMessageAsync(tfr));
+	}
+
+	// registered before producing, so a fast reply cannot arrive ahead of its expectation
+	private <R> CompletableFuture<R> exchange(String replyTopic, UUID requestUuid, String correlationId, Supplier<CompletableFuture<?>> produce) {
+		CompletableFuture<R> reply = replyRouter.expect(replyTopic, requestUuid, correlationId);
+		try {
+			produce.get().whenComplete((sent, ex) -> {
+				if (ex != null) {
+					replyRouter.cancel(replyTopic, requestUuid, correlationId, ex);
+				}
+			});
+		} catch (RuntimeException ex) {
+			// a send that fails before handing back a future must not leave its registration waiting for the timeout
+			replyRouter.cancel(replyTopic, requestUuid, correlationId, ex);
+		}
+		return reply;
+	}
+}
@@ -0,0 +1,85 @@
+package qslv.itest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+
+/*
+ * End-to-end latency of fulfillment replies, per reply topic, split at the service's completion stamp:
+ * "service" is messageCreationTime to messageCompletionTime (request queueing plus fulfillment), "reply" is
+ * messageCompletionTime to the moment the listener consumed it (reply queueing). The stamps come from other
+ * hosts' clocks; a reply missing a stamp, or whose stamps run backwards, is counted but not recorded.
+ */
+@Component
+public class FulfillmentLatencyRecorder implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(FulfillmentLatencyRecorder.class);
+
+	private final Map<String, TopicLatency> topics = new ConcurrentHashMap<>();
+
+	public static class TopicLatency {
+		private final LatencyHistogram service = new LatencyHistogram();
+		private final LatencyHistogram reply = new LatencyHistogram();
+		private final AtomicLong unstamped = new AtomicLong();
+		private final AtomicLong skewed = new AtomicLong();
+
+		public LatencyHistogram getService() {
+			return service;
+		}
+		public LatencyHistogram getReply() {
+			return reply;
+		}
+		public long getUnstamped() {
+			return unstamped.get();
+		}
+		public long getSkewed() {
+			return skewed.get();
+		}
+	}
+
+	public void record(String replyTopic, TraceableMessage<?> message) {
+		LocalDateTime consumed = LocalDateTime.now();
+		TopicLatency latency = topics.computeIfAbsent(replyTopic, k -> new TopicLatency());
+		LocalDateTime created = message.getMessageCreationTime();
+		LocalDateTime completed = message.getMessageCompletionTime();
+		if (created == null || completed == null) {
+			latency.unstamped.incrementAndGet();
+			return;
+		}
+		long serviceNanos = Duration.between(created, completed).toNanos();
+		long replyNanos = Duration.between(completed, consumed).toNanos();
+		if (serviceNanos < 0 || replyNanos < 0) {
+			latency.skewed.incrementAndGet();
+			return;
+		}
+		latency.service.record(serviceNanos);
+		latency.reply.record(replyNanos);
+	}
+
+	public Map<String, TopicLatency> getTopics() {
+		return new TreeMap<>(topics);
+	}
+
+	@Override
+	public void reset() {
+		topics.clear();
+	}
+
+	public void logStatistics() {
+		getTopics().forEach((topic, latency) -> {
+			log.info("{} service {}", topic, latency.getService().summary());
+			log.info("{} reply {}", topic, latency.getReply().summary());
+			if (latency.getUnstamped() > 0 || latency.getSkewed() > 0) {
+				log.warn("{} unstamped={} skewed={}", topic, latency.getUnstamped(), latency.getSkewed());
+			}
+		});
+	}
+}
@@ -0,0 +1,174 @@
+package qslv.itest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Cost of each KafkaProducerDao mode, sending transaction requests to qslv.kafka-bench-transaction-topic (and
+ * bookkeeping records to qslv.kafka-bench-bookkeeping-topic) rather than the live topics. Each level runs two
+ * phases: "sync" waits for every record (for transactional, one transaction with its bookkeeping record per
+ * request, as KafkaProducerDao's blocking calls do), "pipelined" does not (for transactional, kafkaTransactionBatch
+ * requests per transaction, as KafkaProducerDao's *Async calls do). Latency runs from send to ack, or to the
+ * commit of the record's transaction.
+ */
+@Component
+public class GuaranteeLevelBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(GuaranteeLevelBenchmark.class);
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private KafkaProducerConfig kafkaProducerConfig;
+	@Autowired
+	private LoadOperations loadOperations;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class Result {
+		private final String level;
+		private final String phase;
+		private final long messages;
+		private final long errors;
+		private final long elapsedNanos;
+		private final LatencyHistogram latency;
+
+		Result(String level, String phase, long messages, long errors, long elapsedNanos, LatencyHistogram latency) {
+			this.level = level;
+			this.phase = phase;
+			this.messages = messages;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+			this.latency = latency;
+		}
+		public String getLevel() {
+			return level;
+		}
+		public String getPhase() {
+			return phase;
+		}
+		public long getMessages() {
+			return messages;
+		}
+		public long getErrors() {
+			return errors;
+		}
+		public double getThroughput() {
+			return messages * 1e9 / Math.max(1L, elapsedNanos);
+		}
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+		public String summary() {
+			return String.format("%s %s messages=%d errors=%d throughput=%.1f/s %s", level, phase, messages, errors,
+					getThroughput(), latency.summary());
+		}
+	}
+
+	public List<Result> run() throws Exception {
+		List<Result> results = new ArrayList<>();
+		for (String level : new String[] { KafkaProducerDao.PLAIN, KafkaProducerDao.IDEMPOTENT, KafkaProducerDao.TRANSACTIONAL }) {
+			try (KafkaProducer<String, Object> producer = producer(level)) {
+				boolean transactional = KafkaProducerDao.TRANSACTIONAL.equals(level);
+				if (transactional) {
+					producer.initTransactions();
+				}
+				// keep metadata and connection setup out of both phases
+				send(producer, transactional, 1, 1);
+				results.add(send(producer, transactional, Math.max(1, config.getKafkaGuaranteeMessages() / 10), 1)
+						.as(level, "sync"));
+				results.add(send(producer, transactional, config.getKafkaGuaranteeMessages(),
+						transactional ? config.getKafkaTransactionBatch() : Integer.MAX_VALUE).as(level, "pipelined"));
+			}
+		}
+		results.forEach(result -> log.info("run {}", result.summary()));
+		return results;
+	}
+
+	private KafkaProducer<String, Object> producer(String level) throws Exception {
+		Map<String, Object> properties = KafkaProducerDao.PLAIN.equals(level) ? new HashMap<>(kafkaProducerConfig.producerConfig())
+				: KafkaProducerProfiles.idempotent(kafkaProducerConfig.producerConfig());
+		properties.put(ProducerConfig.CLIENT_ID_CONFIG, "qslv.itest.guarantee-" + level);
+		if (KafkaProducerDao.TRANSACTIONAL.equals(level)) {
+			properties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, config.getKafkaTransactionIdPrefix() + UUID.randomUUID() + "-guarantee-benchmark");
+		}
+		return new KafkaProducer<>(properties, new StringSerializer(), kafkaProducerConfig.fulfillmentSerializer());
+	}
+
+	/*
+	 * Sends count records; groupSize records are waited for together, sync being groupSize 1 and a fraction of
+	 * the pipelined count. For a transactional producer a group is one transaction with a bookkeeping record per request.
+	 */
+	private Phase send(KafkaProducer<String, Object> producer, boolean transactional, int count, int groupSize) throws Exception {
+		LatencyHistogram latency = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		String topic = config.getKafkaTransactionRequestQueue();
+		long startNanos = System.nanoTime();
+		int sent = 0;
+		while (sent < count) {
+			int group = Math.min(groupSize, count - sent);
+			long[] sendStarts = new long[group];
+			if (transactional) {
+				producer.beginTransaction();
+			}
+			for (int i = 0; i < group; i++) {
+				ProducerRecord<String, Object> record = loadOperations.benchmarkRecord(topic);
+				sendStarts[i] = System.nanoTime();
+				long sendStart = sendStarts[i];
+				producer.send(record, (metadata, ex) -> {
+					if (ex != null) {
+						errors.incrementAndGet();
+					} else if (!transactional) {
+						latency.record(System.nanoTime() - sendStart);
+					}
+				});
+				if (transactional) {
+					producer.send(new ProducerRecord<>(config.getKafkaBenchBookkeepingTopic(), record.key(), record.key()));
+				}
+			}
+			if (transactional) {
+				producer.commitTransaction();
+				long committed = System.nanoTime();
+				for (long sendStart : sendStarts) {
+					latency.record(committed - sendStart);
+				}
+			} else if (groupSize == 1) {
+				producer.flush();
+			}
+			sent += group;
+		}
+		producer.flush();
+		return new Phase(count, errors.get(), System.nanoTime() - startNanos, latency);
+	}
+
+	private static class Phase {
+		private final long messages;
+		private final long errors;
+		private final long elapsedNanos;
+		private final LatencyHistogram latency;
+
+		Phase(long messages, long errors, long elapsedNanos, LatencyHistogram latency) {
+			this.messages = messages;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+			this.latency = latency;
+		}
+		Result as(String level, String phase) {
+			return new Result(level, phase, messages, errors, elapsedNanos, latency);
+		}
+	}
+}
@@ -5,7 +5,6 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 
 
 import org.junit.jupiter.api.Test;
@@ -37,7 +36,7 @@ class Itest_CommitFulfillment {
 	
 	//Response Queue
 	@Autowired KafkaFulfillmentListener kafkaFulfillmentListener;
-	@Autowired ArrayBlockingQueue<TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitExchangeQueue;
+	@Autowired ReplyBuffer<TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitExchangeQueue;
 	
 	public static String TEST_ACCOUNT = "TEST_ACCOUNT";
 	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
@@ -0,0 +1,92 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.common.kafka.ResponseMessage;
+import qslv.common.kafka.TraceableMessage;
+import qslv.transaction.request.TransactionRequest;
+import qslv.transaction.response.TransactionResponse;
+import qslv.util.EnableQuickSilver;
+
+@SpringBootTest
+@EnableQuickSilver
+class Itest_FulfillmentExchange {
+
+	@Autowired
+	FulfillmentExchangeDao fulfillmentExchangeDao;
+	@Autowired
+	JdbcDao jdbcDao;
+	@Autowired
+	ConfigProperties config;
+
+	public static String TEST_ACCOUNT = "TEST_EXCHANGE_ACCOUNT";
+	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
+	public static String VALID_STATUS = "EF";
+	public static String JSON_DATA = "{\"value\": 234934}";
+	public static int IN_FLIGHT = 50;
+
+	@Test
+	void testConcurrentExchanges_success() throws Exception {
+		long start_amount = 9999L;
+		long transaction_amount = -1L;
+		long expected_balance = start_amount + IN_FLIGHT * transaction_amount;
+
+		// - setup --------------------
+		jdbcDao.setupAccountBalance(TEST_ACCOUNT, start_amount);
+		jdbcDao.setupAccount(TEST_ACCOUNT, VALID_STATUS);
+
+		List<TraceableMessage<TransactionRequest>> requests = new ArrayList<>();
+		for (int i = 0; i < IN_FLIGHT; i++) {
+			requests.add(setup_message(transaction_amount));
+		}
+
+		// - execute ------------------
+		List<CompletableFuture<TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>>>> replies = new ArrayList<>();
+		for (TraceableMessage<TransactionRequest> request : requests) {
+			replies.add(fulfillmentExchangeDao.exchangeTransactionMessage(request));
+		}
+
+		// - verify -------------------
+		for (int i = 0; i < IN_FLIGHT; i++) {
+			TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>> response
+				= replies.get(i).get(config.getKafkaReplyTimeout(), TimeUnit.MILLISECONDS);
+			assertNotNull(response.getPayload());
+			assertEquals(ResponseMessage.SUCCESS, response.getPayload().getStatus());
+			assertEquals(requests.get(i).getCorrelationId(), response.getCorrelationId());
+			assertEquals(requests.get(i).getPayload().getRequestUuid(), response.getPayload().getRequest().getRequestUuid());
+			assertEquals(TransactionResponse.SUCCESS, response.getPayload().getResponse().getStatus());
+		}
+
+		long dbbalance = jdbcDao.selectBalance(TEST_ACCOUNT);
+		assertEquals(expected_balance, dbbalance);
+	}
+
+	private TraceableMessage<TransactionRequest> setup_message(long transaction_amount) {
+		TransactionRequest request = new TransactionRequest();
+		request.setAccountNumber(TEST_ACCOUNT);
+		request.setDebitCardNumber(null);
+		request.setRequestUuid(UUID.randomUUID());
+		request.setTransactionMetaDataJson(JSON_DATA);
+		request.setTransactionAmount(transaction_amount);
+		request.setAuthorizeAgainstBalance(true);
+
+		TraceableMessage<TransactionRequest> traceable = new TraceableMessage<>();
+		traceable.setProducerAit(config.getAitid());
+		traceable.setBusinessTaxonomyId(TEST_TAXONOMY_ID);
+		traceable.setCorrelationId(UUID.randomUUID().toString());
+		traceable.setPayload(request);
+		traceable.setMessageCreationTime(LocalDateTime.now());
+		return traceable;
+	}
+}
@@ -0,0 +1,178 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.common.TraceableRequest;
+import qslv.reservefunds.request.ReserveFundsRequest;
+import qslv.reservefunds.response.ReserveFundsResponse;
+import qslv.transaction.request.CommitReservationRequest;
+import qslv.transaction.request.ReservationRequest;
+import qslv.transaction.resource.TransactionResource;
+import qslv.transaction.response.CommitReservationResponse;
+import qslv.transaction.response.ReservationResponse;
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Hedging sends duplicate requests with the same requestUUID. These tests force a hedge on every call
+ * and verify the services still apply each request exactly once. The hedging properties are set on this class's
+ * own context so they do not leak into the other tests of the suite.
+ */
+@SpringBootTest(properties = { "qslv.rest-hedge-enabled=true", "qslv.rest-hedge-min-delay=0",
+		"qslv.rest-hedge-min-samples=2147483647" })
+@EnableQuickSilver
+class Itest_Hedging {
+
+	@Autowired
+	ReserveFundsDao reserveFundsDao;
+	@Autowired
+	TransactionDao transactionDao;
+	@Autowired
+	JdbcDao jdbcDao;
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	RestHedger restHedger;
+
+	public static String TEST_ACCOUNT = "TEST_ACCOUNT";
+	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
+	public static String VALID_STATUS = "EF";
+	public static String JSON_DATA = "{\"value\": 234934}";
+
+	@BeforeEach
+	void resetHedging() {
+		restHedger.reset();
+	}
+
+	@Test
+	void testHedgedReserveFunds_appliedOnce() throws Exception {
+		long start_amount = 9999;
+		long test_amount = -1111;
+		UUID requestUuid = UUID.randomUUID();
+
+		// - setup --------------------
+		jdbcDao.setupAccountBalance(TEST_ACCOUNT, start_amount);
+		jdbcDao.setupAccount(TEST_ACCOUNT, VALID_STATUS);
+
+		// - execute ------------------
+		ReserveFundsResponse response = reserveFundsDao.reserveFunds(setup_header(ReserveFundsRequest.version1_0),
+				reserveFundsRequest(requestUuid, test_amount));
+
+		// - verify -------------------
+		assertEquals(ReserveFundsResponse.SUCCESS, response.getStatus());
+		assertHedged(config.getReserveFundsUrl());
+		assertEquals(start_amount + test_amount, jdbcDao.selectBalance(TEST_ACCOUNT));
+		TransactionResource dbTransaction = jdbcDao.selectTransactionbyRequest(requestUuid, TEST_ACCOUNT);
+		assertEquals(response.getTransactions().get(0).getTransactionUuid(), dbTransaction.getTransactionUuid());
+		assertEquals(1L, restHedger.getStatistics().get(config.getReserveFundsUrl()).getCalls());
+	}
+
+	@Test
+	void testHedgedReserveFundsAsync_concurrent() throws Exception {
+		long start_amount = 99999;
+		long test_amount = -11;
+		int calls = 25;
+
+		// - setup --------------------
+		jdbcDao.setupAccountBalance(TEST_ACCOUNT, start_amount);
+		jdbcDao.setupAccount(TEST_ACCOUNT, VALID_STATUS);
+
+		// - execute ------------------
+		List<UUID> requestUuids = new ArrayList<>();
+		List<CompletableFuture<ReserveFundsResponse>> futures = new ArrayList<>();
+		for (int i = 0; i < calls; i++) {
+			UUID requestUuid = UUID.randomUUID();
+			requestUuids.add(requestUuid);
+			futures.add(reserveFundsDao.reserveFundsAsync(setup_header(ReserveFundsRequest.version1_0),
+					reserveFundsRequest(requestUuid, test_amount)));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+
+		// - verify -------------------
+		for (CompletableFuture<ReserveFundsResponse> future : futures) {
+			assertEquals(ReserveFundsResponse.SUCCESS, future.get().getStatus());
+		}
+		assertHedged(config.getReserveFundsUrl());
+		assertEquals(start_amount + calls * test_amount, jdbcDao.selectBalance(TEST_ACCOUNT));
+		for (UUID requestUuid : requestUuids) {
+			assertNotNull(jdbcDao.selectTransactionbyRequest(requestUuid, TEST_ACCOUNT));
+		}
+	}
+
+	@Test
+	void testHedgedReservationCommit_appliedOnce() throws Exception {
+		long start_amount = 9999;
+		long reservation_amount = -2222;
+		long commit_amount = -2000;
+
+		// - setup --------------------
+		jdbcDao.setupAccountBalance(TEST_ACCOUNT, start_amount);
+		jdbcDao.setupAccount(TEST_ACCOUNT, VALID_STATUS);
+
+		ReservationRequest reservation = new ReservationRequest();
+		reservation.setRequestUuid(UUID.randomUUID());
+		reservation.setAccountNumber(TEST_ACCOUNT);
+		reservation.setAuthorizeAgainstBalance(true);
+		reservation.setDebitCardNumber(null);
+		reservation.setTransactionAmount(reservation_amount);
+		reservation.setTransactionMetaDataJson(JSON_DATA);
+
+		// - execute ------------------
+		ReservationResponse reservationResponse = transactionDao.postReservation(setup_header(ReservationRequest.VERSION_1_0), reservation);
+		assertHedged(config.getReservationUrl());
+		assertEquals(start_amount + reservation_amount, jdbcDao.selectBalance(TEST_ACCOUNT));
+
+		CommitReservationRequest commit = new CommitReservationRequest();
+		commit.setAccountNumber(TEST_ACCOUNT);
+		commit.setRequestUuid(UUID.randomUUID());
+		commit.setReservationUuid(reservationResponse.getResource().getTransactionUuid());
+		commit.setTransactionAmount(commit_amount);
+		commit.setTransactionMetaDataJson(JSON_DATA);
+		CommitReservationResponse commitResponse = transactionDao.commitReservation(setup_header(CommitReservationRequest.VERSION_1_0), commit);
+
+		// - verify -------------------
+		assertEquals(CommitReservationResponse.SUCCESS, commitResponse.getStatus());
+		assertHedged(config.getCommitReservationUrl());
+		assertEquals(start_amount + commit_amount, jdbcDao.selectBalance(TEST_ACCOUNT));
+		assertNotNull(jdbcDao.selectTransactionbyRequest(reservation.getRequestUuid(), TEST_ACCOUNT));
+		assertNotNull(jdbcDao.selectTransactionbyRequest(commit.getRequestUuid(), TEST_ACCOUNT));
+	}
+
+	// min-delay=0 hedges every call, unless the primary answered before the timer ran
+	private void assertHedged(String url) {
+		RestHedger.HedgeStatistics stats = restHedger.getStatistics().get(url);
+		assertNotNull(stats, url);
+		assertTrue(stats.getHedges() >= 1, url);
+		assertEquals(0L, stats.getHedgesSkipped(), url);
+	}
+
+	private ReserveFundsRequest reserveFundsRequest(UUID requestUuid, long amount) {
+		ReserveFundsRequest request = new ReserveFundsRequest();
+		request.setAccountNumber(TEST_ACCOUNT);
+		request.setDebitCardNumber(null);
+		request.setRequestUUID(requestUuid);
+		request.setTransactionAmount(amount);
+		request.setTransactionMetaDataJSON(JSON_DATA);
+		request.setProtectAgainstOverdraft(false);
+		return request;
+	}
+
+	private HashMap<String, String> setup_header(String version) {
+		HashMap<String, String> headerMap = new HashMap<>();
+		headerMap.put(TraceableRequest.AIT_ID, config.getAitid());
+		headerMap.put(TraceableRequest.BUSINESS_TAXONOMY_ID, TEST_TAXONOMY_ID);
+		headerMap.put(TraceableRequest.CORRELATION_ID, UUID.randomUUID().toString());
+		headerMap.put(TraceableRequest.ACCEPT_VERSION, version);
+		return headerMap;
+	}
+}
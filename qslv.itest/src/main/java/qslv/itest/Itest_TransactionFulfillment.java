@@ -4,7 +4,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 
 
 import org.junit.jupiter.api.Test;
@@ -33,7 +32,7 @@ class Itest_TransactionFulfillment {
 	
 	//Response Queue
 	@Autowired KafkaFulfillmentListener kafkaFulfillmentListener;
-	@Autowired ArrayBlockingQueue<TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionExchangeQueue;
+	@Autowired ReplyBuffer<TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionExchangeQueue;
 	
 	public static String TEST_ACCOUNT = "TEST_ACCOUNT";
 	public static String TEST_TAXONOMY_ID = "9.9.9.9.9";
@@ -4,7 +4,6 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashMap;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,7 +31,7 @@ class Itest_TransferFunds {
 	@Autowired
 	KafkaTransferFundsRequestListener kafkaTransferFundsRequestListener;
 	@Autowired
-	ArrayBlockingQueue<TransferFulfillmentMessage> exchangeQueue;
+	ReplyBuffer<TransferFulfillmentMessage> exchangeQueue;
 	
 	public static String TEST_FROM_ACCOUNT = "TEST_ACCOUNT";
 	public static String TEST_TO_ACCOUNT = "TEST_ACCOUNT1";
@@ -5,7 +5,6 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.UUID;
-import java.util.concurrent.ArrayBlockingQueue;
 
 
 import org.junit.jupiter.api.Test;
@@ -33,13 +32,13 @@ class Itest_TransferandFulfillFunds {
 	@Autowired
 	KafkaTransferFundsRequestListener kafkaTransferFundsRequestListener;
 	@Autowired
-	ArrayBlockingQueue<TransferFulfillmentMessage> transferFundsRequestexchangeQueue;
+	ReplyBuffer<TransferFulfillmentMessage> transferFundsRequestexchangeQueue;
 	@Autowired
 	KafkaProducerDao kafkaProducerDao;
 	
 	//DeadLetter
 	@Autowired KafkaTransferFundsDeadLetterListener kafkaTransferFundsDeadLetterListener;
-	@Autowired ArrayBlockingQueue<String> deadLetterExchangeQueue;
+	@Autowired ReplyBuffer<String> deadLetterExchangeQueue;
 	
 	public static String TEST_FROM_ACCOUNT = "TEST_ACCOUNT";
 	public static String TEST_TO_ACCOUNT = "TEST_ACCOUNT1";
@@ -2,8 +2,15 @@ package qslv.itest;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +37,13 @@ public class JdbcDao {
 	public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
 		this.jdbcTemplate = jdbcTemplate;
 	}
+
+	@Autowired
+	private ConfigProperties config;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
 	
 	public final static String updateBalance_sql = "UPSERT INTO account_balance (account_id, runningBalance_am) values (?,?);";
 	
@@ -180,4 +194,173 @@ public class JdbcDao {
 		log.debug("Overdraft row added: {}", rowsUpdated);
 		return;
 	}
-}
\ No newline at end of file
+
+	//-----------------------
+	// Batch fixture loading: multi-row UPSERTs (INSERT for overdraft instructions, as addOverdraft), jdbcBatchRows
+	// rows per statement, so a large population costs one round trip per chunk instead of one per row.
+	//-----------------------
+	public static class AccountRow {
+		private final String accountNumber;
+		private final String lifecycleStatusCd;
+
+		public AccountRow(String accountNumber, String lifecycleStatusCd) {
+			this.accountNumber = accountNumber;
+			this.lifecycleStatusCd = lifecycleStatusCd;
+		}
+	}
+
+	public static class BalanceRow {
+		private final String accountNumber;
+		private final long balance;
+
+		public BalanceRow(String accountNumber, long balance) {
+			this.accountNumber = accountNumber;
+			this.balance = balance;
+		}
+	}
+
+	public static class DebitRow {
+		private final String debitNumber;
+		private final String accountNumber;
+		private final String statusCode;
+
+		public DebitRow(String debitNumber, String accountNumber, String statusCode) {
+			this.debitNumber = debitNumber;
+			this.accountNumber = accountNumber;
+			this.statusCode = statusCode;
+		}
+	}
+
+	public static class OverdraftRow {
+		private final String accountNumber;
+		private final String odAccountNumber;
+		private final String statusCode;
+		private final String startDate;
+		private final String endDate;
+		private final int sequence;
+
+		public OverdraftRow(String accountNumber, String odAccountNumber, String statusCode, String startDate, String endDate, int sequence) {
+			this.accountNumber = accountNumber;
+			this.odAccountNumber = odAccountNumber;
+			this.statusCode = statusCode;
+			this.startDate = startDate;
+			this.endDate = endDate;
+			this.sequence = sequence;
+		}
+	}
+
+	public static class BatchLoad {
+		private final String table;
+		private final long rows;
+		private final long statements;
+		private final long elapsedNanos;
+
+		BatchLoad(String table, long rows, long statements, long elapsedNanos) {
+			this.table = table;
+			this.rows = rows;
+			this.statements = statements;
+			this.elapsedNanos = elapsedNanos;
+		}
+		public String getTable() {
+			return table;
+		}
+		public long getRows() {
+			return rows;
+		}
+		public long getStatements() {
+			return statements;
+		}
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+		public double getRowsPerSecond() {
+			return rows * 1e9 / Math.max(1L, elapsedNanos);
+		}
+		public String summary() {
+			return String.format("%s rows=%d statements=%d elapsed=%dms rows/sec=%.0f", table, rows, statements,
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getRowsPerSecond());
+		}
+	}
+
+	@ExternalResourceSLI(value="jdbc::setupAccountBalances", ait = "88888", remoteFailures= {DataAccessException.class})
+	public BatchLoad setupAccountBalances(Collection<BalanceRow> balances) {
+		return loadChunks("account_balance", "UPSERT INTO account_balance (account_id, runningBalance_am) values ", 2,
+				balances, row -> new Object[] { row.accountNumber, row.balance });
+	}
+
+	@ExternalResourceSLI(value="jdbc::setupAccounts", ait = "88888", remoteFailures= {DataAccessException.class})
+	public BatchLoad setupAccounts(Collection<AccountRow> accounts) {
+		return loadChunks("account", "UPSERT INTO account (account_no, lifecycle_status_cd) values ", 2,
+				accounts, row -> new Object[] { row.accountNumber, row.lifecycleStatusCd });
+	}
+
+	@ExternalResourceSLI(value="jdbc::setupDebits", ait = "88888", remoteFailures= {DataAccessException.class})
+	public BatchLoad setupDebits(Collection<DebitRow> debits) {
+		return loadChunks("debit_card", "UPSERT INTO debit_card (debit_card_no, account_no, lifecycle_status_cd) values ", 3,
+				debits, row -> new Object[] { row.debitNumber, row.accountNumber, row.statusCode });
+	}
+
+	@ExternalResourceSLI(value="jdbc::addOverdrafts", ait = "88888", remoteFailures= {DataAccessException.class})
+	public BatchLoad addOverdrafts(Collection<OverdraftRow> overdrafts) {
+		return loadChunks("overdraft_instruction", "INSERT INTO overdraft_instruction (account_no,overdraft_account_no,"
+				+ "lifecycle_status_cd,effective_start_dt, effective_end_dt, sequence) values ", 6,
+				overdrafts, row -> new Object[] { row.accountNumber, row.odAccountNumber, row.statusCode, row.startDate,
+						row.endDate, row.sequence });
+	}
+
+	public final static String deleteOverdrafts_sql = "DELETE FROM overdraft_instruction where account_no in ";
+	public void clearOverdrafts(Collection<OverdraftRow> overdrafts) {
+		List<String> accountNumbers = overdrafts.stream().map(row -> row.accountNumber).distinct().collect(Collectors.toList());
+		int chunkRows = Math.max(1, Math.min(config.getJdbcBatchRows(), 65535));
+		int rowsDeleted = 0;
+		for (int first = 0; first < accountNumbers.size(); first += chunkRows) {
+			List<String> chunk = accountNumbers.subList(first, Math.min(accountNumbers.size(), first + chunkRows));
+			rowsDeleted += jdbcTemplate.update(deleteOverdrafts_sql + "(" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ");",
+					chunk.toArray());
+		}
+		log.debug("clearOverdrafts rows deleted: {}", rowsDeleted);
+	}
+
+	private <T> BatchLoad loadChunks(String table, String insertPrefix, int columns, Collection<T> rows, Function<T, Object[]> values) {
+		log.trace("loadChunks ENTRY {} {} rows", table, rows.size());
+		// the PostgreSQL wire protocol allows at most 65535 bind parameters per statement
+		int chunkRows = Math.max(1, Math.min(config.getJdbcBatchRows(), 65535 / columns));
+		String fullChunkSql = chunkSql(insertPrefix, columns, chunkRows);
+		long startNanos = System.nanoTime();
+		long statements = 0;
+
+		List<Object> args = new ArrayList<>(chunkRows * columns);
+		int pending = 0;
+		for (T row : rows) {
+			args.addAll(Arrays.asList(values.apply(row)));
+			if (++pending == chunkRows) {
+				updateChunk(table, fullChunkSql, args, pending);
+				statements++;
+				args.clear();
+				pending = 0;
+			}
+		}
+		if (pending > 0) {
+			updateChunk(table, chunkSql(insertPrefix, columns, pending), args, pending);
+			statements++;
+		}
+
+		BatchLoad load = new BatchLoad(table, rows.size(), statements, System.nanoTime() - startNanos);
+		log.info("loadChunks {}", load.summary());
+		return load;
+	}
+
+	private void updateChunk(String table, String sql, List<Object> args, int rowCount) {
+		int rowsUpdated = jdbcTemplate.update(sql, args.toArray());
+		if (rowsUpdated != rowCount) {
+			log.error("updateChunk, ERROR={} rows updated, expected {}, table={}", rowsUpdated, rowCount, table);
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+					String.format("%d (!= %d) %s rows updated.", rowsUpdated, rowCount, table));
+		}
+	}
+
+	private static String chunkSql(String insertPrefix, int columns, int rowCount) {
+		String tuple = "(" + String.join(",", Collections.nCopies(columns, "?")) + ")";
+		return insertPrefix + String.join(",", Collections.nCopies(rowCount, tuple)) + ";";
+	}
+}
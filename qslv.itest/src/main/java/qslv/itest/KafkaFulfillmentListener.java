@@ -1,6 +1,7 @@
 package qslv.itest;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.List;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,15 +21,26 @@ import qslv.transaction.response.TransactionResponse;
 @Component
 public class KafkaFulfillmentListener {
 	private static final Logger log = LoggerFactory.getLogger(KafkaFulfillmentListener.class);
+	// qslv.kafka-reply-listener-mode picks which set of reply listeners joins the group; none does when
+	// qslv.kafka-reply-assignment=assigned, AssignedReplyConsumers consumes the replies then
+	static final String RECORD_MODE = "#{'${qslv.kafka-reply-listener-mode:record}' != 'batch' and '${qslv.kafka-reply-assignment:group}' != 'assigned'}";
+	static final String BATCH_MODE = "#{'${qslv.kafka-reply-listener-mode:record}' == 'batch' and '${qslv.kafka-reply-assignment:group}' != 'assigned'}";
 
 	@Autowired
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>>> cancelExchangeQueue;
+	ConfigProperties config;
 	@Autowired
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>>> commitExchangeQueue;
+	ReplyRouter replyRouter;
 	@Autowired
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>>> transactionExchangeQueue;
+	FulfillmentLatencyRecorder fulfillmentLatencyRecorder;
 
-	public void drain(ArrayBlockingQueue<?> queue) {
+	@Autowired
+	ReplyBuffer<TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>>> cancelExchangeQueue;
+	@Autowired
+	ReplyBuffer<TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>>> commitExchangeQueue;
+	@Autowired
+	ReplyBuffer<TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>>> transactionExchangeQueue;
+
+	public void drain(ReplyBuffer<?> queue) {
 		queue.clear();
 	}
 
@@ -39,44 +51,83 @@ public class KafkaFulfillmentListener {
 	}
 
 	@KafkaListener(containerFactory = "cancelReservationListenerContainerFactory", topics = {
-			"cancel.fulfillment.reply.queue" }, groupId = "foo")
+			"cancel.fulfillment.reply.queue" }, groupId = "foo", autoStartup = RECORD_MODE)
 	public void cancelListen(
 			@Payload TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>> message) {
 		log.debug("cancelListen ENTRY");
-		try {
-			cancelExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			log.debug(e.getLocalizedMessage());
-		}
+		cancelReply(message);
 		log.debug("cancelListen EXIT");
 	}
 
 	@KafkaListener(containerFactory = "commitReservationListenerContainerFactory", topics = {
-			"commit.fulfillment.reply.queue" }, groupId = "foo")
+			"commit.fulfillment.reply.queue" }, groupId = "foo", autoStartup = RECORD_MODE)
 	public void commitListen(
 			@Payload TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>> message) {
 		log.debug("commitListen ENTRY");
-		try {
-			commitExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			log.debug(e.getLocalizedMessage());
-		}
+		commitReply(message);
 		log.debug("onMessage EXIT");
 	}
 
 	@KafkaListener(containerFactory = "transactionListenerContainerFactory", topics = {
-			"transaction.fulfillment.reply.queue" }, groupId = "foo")
+			"transaction.fulfillment.reply.queue" }, groupId = "foo", autoStartup = RECORD_MODE)
 	public void transactionListen(
 			@Payload TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>> message) {
 		log.debug("transactionListen ENTRY");
-		try {
-			transactionExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			log.debug(e.getLocalizedMessage());
-		}
+		transactionReply(message);
 		log.debug("onMessage EXIT");
 	}
+
+	//--Batch mode: one call per poll, up to qslv.kafka-max-poll-records replies
+	@KafkaListener(containerFactory = "cancelReservationBatchListenerContainerFactory", topics = {
+			"cancel.fulfillment.reply.queue" }, groupId = "foo", autoStartup = BATCH_MODE)
+	public void cancelListenBatch(
+			@Payload List<TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>>> messages) {
+		log.debug("cancelListenBatch ENTRY {}", messages.size());
+		messages.forEach(this::cancelReply);
+	}
+
+	@KafkaListener(containerFactory = "commitReservationBatchListenerContainerFactory", topics = {
+			"commit.fulfillment.reply.queue" }, groupId = "foo", autoStartup = BATCH_MODE)
+	public void commitListenBatch(
+			@Payload List<TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>>> messages) {
+		log.debug("commitListenBatch ENTRY {}", messages.size());
+		messages.forEach(this::commitReply);
+	}
+
+	@KafkaListener(containerFactory = "transactionBatchListenerContainerFactory", topics = {
+			"transaction.fulfillment.reply.queue" }, groupId = "foo", autoStartup = BATCH_MODE)
+	public void transactionListenBatch(
+			@Payload List<TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>>> messages) {
+		log.debug("transactionListenBatch ENTRY {}", messages.size());
+		messages.forEach(this::transactionReply);
+	}
+
+	void cancelReply(TraceableMessage<ResponseMessage<CancelReservationRequest, CancelReservationResponse>> message) {
+		UUID requestUuid = message.getPayload() == null || message.getPayload().getRequest() == null ? null
+				: message.getPayload().getRequest().getRequestUuid();
+		if (!route(config.getKafkaCancelReplyQueue(), requestUuid, message)) {
+			cancelExchangeQueue.offer(message);
+		}
+	}
+
+	void commitReply(TraceableMessage<ResponseMessage<CommitReservationRequest, CommitReservationResponse>> message) {
+		UUID requestUuid = message.getPayload() == null || message.getPayload().getRequest() == null ? null
+				: message.getPayload().getRequest().getRequestUuid();
+		if (!route(config.getKafkaCommitReplyQueue(), requestUuid, message)) {
+			commitExchangeQueue.offer(message);
+		}
+	}
+
+	void transactionReply(TraceableMessage<ResponseMessage<TransactionRequest, TransactionResponse>> message) {
+		UUID requestUuid = message.getPayload() == null || message.getPayload().getRequest() == null ? null
+				: message.getPayload().getRequest().getRequestUuid();
+		if (!route(config.getKafkaTransactionReplyQueue(), requestUuid, message)) {
+			transactionExchangeQueue.offer(message);
+		}
+	}
+
+	private boolean route(String replyTopic, UUID requestUuid, TraceableMessage<?> message) {
+		fulfillmentLatencyRecorder.record(replyTopic, message);
+		return replyRouter.route(replyTopic, requestUuid, message.getCorrelationId(), message);
+	}
 }
@@ -1,11 +1,16 @@
 package qslv.itest;
 
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 
 import javax.annotation.Resource;
 
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,6 +21,10 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
 import qslv.common.kafka.JacksonAvroDeserializer;
 import qslv.common.kafka.ResponseMessage;
 import qslv.common.kafka.TraceableMessage;
@@ -30,6 +39,7 @@ import qslv.transfer.request.TransferFulfillmentMessage;
 @Configuration
 @EnableKafka
 public class KafkaListenerConfig {
+	private static final Logger log = LoggerFactory.getLogger(KafkaListenerConfig.class);
 
 	@Autowired
 	ConfigProperties config;
@@ -37,25 +47,42 @@ public class KafkaListenerConfig {
 	@Resource(name="listenerConfig")
 	public Map<String,Object> listenerConfig;	
 	
+	private final ObjectMapper spillMapper = new ObjectMapper().findAndRegisterModules();
+
 	@Bean
-	ArrayBlockingQueue<TransferFulfillmentMessage> transferFundsRequestexchangeQueue() {
-		return new ArrayBlockingQueue<>(25);
+	ReplyBuffer<TransferFulfillmentMessage> transferFundsRequestexchangeQueue() {
+		return replyBuffer("transferFundsRequestexchangeQueue", TransferFulfillmentMessage.class);
 	}
 	@Bean
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<CancelReservationRequest,CancelReservationResponse>>> cancelExchangeQueue() {
-		return new ArrayBlockingQueue<>(25);
+	ReplyBuffer<TraceableMessage<ResponseMessage<CancelReservationRequest,CancelReservationResponse>>> cancelExchangeQueue() {
+		return replyBuffer("cancelExchangeQueue", TraceableMessage.class, ResponseMessage.class, CancelReservationRequest.class, CancelReservationResponse.class);
 	}
 	@Bean
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitExchangeQueue() {
-		return new ArrayBlockingQueue<>(25);
+	ReplyBuffer<TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>> commitExchangeQueue() {
+		return replyBuffer("commitExchangeQueue", TraceableMessage.class, ResponseMessage.class, CommitReservationRequest.class, CommitReservationResponse.class);
 	}
 	@Bean
-	ArrayBlockingQueue<TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionExchangeQueue() {
-		return new ArrayBlockingQueue<>(25);
+	ReplyBuffer<TraceableMessage<ResponseMessage<TransactionRequest,TransactionResponse>>> transactionExchangeQueue() {
+		return replyBuffer("transactionExchangeQueue", TraceableMessage.class, ResponseMessage.class, TransactionRequest.class, TransactionResponse.class);
 	}
 	@Bean
-	ArrayBlockingQueue<String> deadLetterExchangeQueue() {
-		return new ArrayBlockingQueue<String>(25);
+	ReplyBuffer<String> deadLetterExchangeQueue() {
+		return replyBuffer("deadLetterExchangeQueue", String.class);
+	}
+
+	private <T> ReplyBuffer<T> replyBuffer(String name, Class<?> type) {
+		return replyBuffer(name, spillMapper.getTypeFactory().constructType(type));
+	}
+
+	// TraceableMessage<ResponseMessage<Request,Response>>
+	private <T> ReplyBuffer<T> replyBuffer(String name, Class<?> traceable, Class<?> response, Class<?> request, Class<?> reply) {
+		TypeFactory types = spillMapper.getTypeFactory();
+		return replyBuffer(name, types.constructParametricType(traceable, types.constructParametricType(response, request, reply)));
+	}
+
+	private <T> ReplyBuffer<T> replyBuffer(String name, JavaType type) {
+		return new ReplyBuffer<>(name, config.getKafkaReplyBufferCapacity(), config.getKafkaReplyBufferPolicy(),
+				Paths.get(config.getKafkaReplyBufferSpillDirectory(), name + ".spill"), spillMapper, type);
 	}
 
 	//--TransferFundsRequest Message Consumer
@@ -92,6 +119,22 @@ public class KafkaListenerConfig {
         return factory;
     }
 
+    //----------------------------------------------------
+	//--Posting Response Consumer
+    @Bean
+    public ConsumerFactory<String, String> postingConsumerFactory() throws Exception {
+    	
+        return new DefaultKafkaConsumerFactory<String, String>(listenerConfig, new StringDeserializer(),  new StringDeserializer());
+    }
+    
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, String>> postingListenerContainerFactory() throws Exception {
+    
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(postingConsumerFactory());
+        return factory;
+    }
+
     //----------------------------------------------------
 	//--CancelReservationFulfillmentResponse Message Consumer
     @Bean
@@ -163,4 +206,46 @@ public class KafkaListenerConfig {
         return factory;
     }
 
+    //----------------------------------------------------
+	//--Batch reply consumers, started instead of the record ones when qslv.kafka-reply-listener-mode=batch.
+	//--Each poll's records arrive as one list; concurrency is qslv.kafka-reply-concurrency, or one consumer
+	//--per partition of the reply topic when that is 0.
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, TraceableMessage<ResponseMessage<CancelReservationRequest,CancelReservationResponse>>>> 
+    	cancelReservationBatchListenerContainerFactory() throws Exception {
+        return batchFactory(cancelReservationConsumerFactory(), config.getKafkaCancelReplyQueue());
+    }
+
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>>> 
+    	commitReservationBatchListenerContainerFactory() throws Exception {
+        return batchFactory(commitReservationConsumerFactory(), config.getKafkaCommitReplyQueue());
+    }
+
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, TraceableMessage<ResponseMessage<CommitReservationRequest,CommitReservationResponse>>>>
+    	transactionBatchListenerContainerFactory() throws Exception {
+        return batchFactory(transactionConsumerFactory(), config.getKafkaTransactionReplyQueue());
+    }
+
+    private <V> ConcurrentKafkaListenerContainerFactory<String, V> batchFactory(ConsumerFactory<String, V> consumerFactory, String topic) {
+        ConcurrentKafkaListenerContainerFactory<String, V> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(replyConcurrency(consumerFactory, topic));
+        return factory;
+    }
+
+    private int replyConcurrency(ConsumerFactory<String, ?> consumerFactory, String topic) {
+        if (config.getKafkaReplyConcurrency() > 0) {
+            return config.getKafkaReplyConcurrency();
+        }
+        try (Consumer<String, ?> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            return partitions == null || partitions.isEmpty() ? 1 : partitions.size();
+        } catch (Exception ex) {
+            log.warn("replyConcurrency {} {}", topic, ex.getLocalizedMessage());
+            return 1;
+        }
+    }
 }
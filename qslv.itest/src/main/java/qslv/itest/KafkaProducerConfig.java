@@ -4,7 +4,9 @@ import java.io.FileInputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
 
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,66 +50,128 @@ public class KafkaProducerConfig {
 				throw resourceEx;
 			}
 		}
-		return new HashMap(kafkaconfig);
+		Map<String,Object> tuned = KafkaProducerProfiles.apply(new HashMap(kafkaconfig), configProperties.getKafkaProducerProfile());
+		if (!configProperties.getKafkaPartitioner().isEmpty()) {
+			tuned.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, configProperties.getKafkaPartitioner());
+		}
+		log.info("producerConfig profile {}", configProperties.getKafkaProducerProfile());
+		return tuned;
 	}
 	
-	// Transfer Fulfillment
+	/*
+	 * All fulfillment traffic goes through one producer: one buffer pool, one I/O thread and one set of broker
+	 * connections, with batches filled across topics. The serializer picks the Avro type by topic.
+	 * ProducerLayoutBenchmark compares this against one producer per message type.
+	 * qslv.kafka-producer-mode other than plain makes the producer idempotent. It is never transactional: a template
+	 * on a transactional factory refuses every send, flush and metadata lookup made outside a transaction.
+	 */
+	@Bean
+	public ProducerFactory<String, Object> fulfillmentProducerFactory() throws Exception {
+		String mode = configProperties.getKafkaProducerMode();
+		Map<String,Object> properties = KafkaProducerDao.PLAIN.equals(mode) ? producerConfig()
+				: KafkaProducerProfiles.idempotent(producerConfig());
+		log.info("fulfillmentProducerFactory mode {}", mode);
+		return new DefaultKafkaProducerFactory<String, Object>(properties, new StringSerializer(), fulfillmentSerializer());
+	}
+
+	/*
+	 * Transactional mode's own producer, used by fulfillmentKafkaTemplate alone. The producer is only created when
+	 * a transaction is first run. The transactional id is made unique per run so parallel runs do not fence each other.
+	 */
 	@Bean
-	public ProducerFactory<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentProducerFactory() throws Exception {
-		JacksonAvroSerializer<TraceableMessage<TransferFulfillmentMessage>> jas = new JacksonAvroSerializer<>();
-		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, TransferFulfillmentMessage.class);
+	public ProducerFactory<String, Object> fulfillmentTransactionalProducerFactory() throws Exception {
+		DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<String, Object>(
+				KafkaProducerProfiles.idempotent(producerConfig()), new StringSerializer(), fulfillmentSerializer());
+		factory.setTransactionIdPrefix(configProperties.getKafkaTransactionIdPrefix() + UUID.randomUUID() + "-");
+		return factory;
+	}
+
+	// request and bookkeeping records in one transaction, see KafkaProducerDao.produceInTransaction
+	@Bean
+	public KafkaTemplate<String, Object> fulfillmentKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(fulfillmentTransactionalProducerFactory(), false); // the transaction commit flushes
+	}
+
+	public TopicDispatchingSerializer fulfillmentSerializer() throws Exception {
+		TopicDispatchingSerializer serializer = new TopicDispatchingSerializer();
+		serializer.register(configProperties.getKafkaTransferRequestQueue(), avroSerializer(TransferFulfillmentMessage.class));
+		serializer.register(configProperties.getKafkaCancelRequestQueue(), avroSerializer(CancelReservationRequest.class));
+		serializer.register(configProperties.getKafkaCommitRequestQueue(), avroSerializer(CommitReservationRequest.class));
+		serializer.register(configProperties.getKafkaTransactionRequestQueue(), avroSerializer(TransactionRequest.class));
+		serializer.register(configProperties.getKafkaBookkeepingTopic(), new StringSerializer());
+		serializer.register(configProperties.getKafkaBenchTransferTopic(), avroSerializer(TransferFulfillmentMessage.class));
+		serializer.register(configProperties.getKafkaBenchCancelTopic(), avroSerializer(CancelReservationRequest.class));
+		serializer.register(configProperties.getKafkaBenchCommitTopic(), avroSerializer(CommitReservationRequest.class));
+		serializer.register(configProperties.getKafkaBenchTransactionTopic(), avroSerializer(TransactionRequest.class));
+		serializer.register(configProperties.getKafkaBenchBookkeepingTopic(), new StringSerializer());
+		return serializer;
+	}
+
+	private <T> JacksonAvroSerializer<TraceableMessage<T>> avroSerializer(Class<T> payloadType) throws Exception {
+		JacksonAvroSerializer<TraceableMessage<T>> jas = new JacksonAvroSerializer<>();
+		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, payloadType);
 		jas.configure(producerConfig(), false, type);
-		return new DefaultKafkaProducerFactory<String, TraceableMessage<TransferFulfillmentMessage>>(producerConfig(),
-				new StringSerializer(), jas);
+		return jas;
+	}
+
+	// every template below shares the one producer; the serializer checks each record's type against its topic
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private <T> ProducerFactory<String, T> sharedProducerFactory() throws Exception {
+		return (ProducerFactory) fulfillmentProducerFactory();
 	}
 
+	// Transfer Fulfillment
 	@Bean
 	public KafkaTemplate<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentKafkaTemplate() throws Exception {
-		return new KafkaTemplate<>(transferFulfillmentProducerFactory(), true); // auto-flush true, to force each message to broker.
-	}	
-	
-	// Cancel Fulfillment
+		return new KafkaTemplate<>(sharedProducerFactory(), true); // auto-flush true, to force each message to broker.
+	}
+
 	@Bean
-	public ProducerFactory<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentProducerFactory() throws Exception {
-		JacksonAvroSerializer<TraceableMessage<CancelReservationRequest>> jas = new JacksonAvroSerializer<>();
-		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, CancelReservationRequest.class);
-		jas.configure(producerConfig(), false, type);
-		return new DefaultKafkaProducerFactory<String, TraceableMessage<CancelReservationRequest>>(producerConfig(),
-				new StringSerializer(), jas);
+	public KafkaTemplate<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentPipelinedKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(sharedProducerFactory(), false); // batched by linger.ms/batch.size, see KafkaProducerDao.produce*Async
 	}
 
+	// Cancel Fulfillment
 	@Bean
 	public KafkaTemplate<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentKafkaTemplate() throws Exception {
-		return new KafkaTemplate<>(cancelFulfillmentProducerFactory(), true); // auto-flush true, to force each message to broker.
-	}	
-	
-	// Commit Fulfillment
+		return new KafkaTemplate<>(sharedProducerFactory(), true); // auto-flush true, to force each message to broker.
+	}
+
 	@Bean
-	public ProducerFactory<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentProducerFactory() throws Exception {
-		JacksonAvroSerializer<TraceableMessage<CommitReservationRequest>> jas = new JacksonAvroSerializer<>();
-		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, CommitReservationRequest.class);
-		jas.configure(producerConfig(), false, type);
-		return new DefaultKafkaProducerFactory<String, TraceableMessage<CommitReservationRequest>>(producerConfig(),
-				new StringSerializer(), jas);
+	public KafkaTemplate<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentPipelinedKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(sharedProducerFactory(), false); // batched by linger.ms/batch.size, see KafkaProducerDao.produce*Async
 	}
 
+	// Commit Fulfillment
 	@Bean
 	public KafkaTemplate<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentKafkaTemplate() throws Exception {
-		return new KafkaTemplate<>(commitFulfillmentProducerFactory(), true); // auto-flush true, to force each message to broker.
-	}	
-	
-	// Transaction Fulfillment
+		return new KafkaTemplate<>(sharedProducerFactory(), true); // auto-flush true, to force each message to broker.
+	}
+
 	@Bean
-	public ProducerFactory<String, TraceableMessage<TransactionRequest>> transactionFulfillmentProducerFactory() throws Exception {
-		JacksonAvroSerializer<TraceableMessage<TransactionRequest>> jas = new JacksonAvroSerializer<>();
-		JavaType type = jas.getTypeFactory().constructParametricType(TraceableMessage.class, TransactionRequest.class);
-		jas.configure(producerConfig(), false, type);
-		return new DefaultKafkaProducerFactory<String, TraceableMessage<TransactionRequest>>(producerConfig(),
-				new StringSerializer(), jas);
+	public KafkaTemplate<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentPipelinedKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(sharedProducerFactory(), false); // batched by linger.ms/batch.size, see KafkaProducerDao.produce*Async
 	}
 
+	// Transaction Fulfillment
 	@Bean
 	public KafkaTemplate<String, TraceableMessage<TransactionRequest>> transactionFulfillmentKafkaTemplate() throws Exception {
-		return new KafkaTemplate<>(transactionFulfillmentProducerFactory(), true); // auto-flush true, to force each message to broker.
+		return new KafkaTemplate<>(sharedProducerFactory(), true); // auto-flush true, to force each message to broker.
+	}
+
+	@Bean
+	public KafkaTemplate<String, TraceableMessage<TransactionRequest>> transactionFulfillmentPipelinedKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(sharedProducerFactory(), false); // batched by linger.ms/batch.size, see KafkaProducerDao.produce*Async
+	}
+
+	// Posting engine: JSON strings, the posting types are not part of this project's interfaces
+	@Bean
+	public ProducerFactory<String, String> postingProducerFactory() throws Exception {
+		return new DefaultKafkaProducerFactory<String, String>(producerConfig(), new StringSerializer(), new StringSerializer());
+	}
+
+	@Bean
+	public KafkaTemplate<String, String> postingKafkaTemplate() throws Exception {
+		return new KafkaTemplate<>(postingProducerFactory(), false);
 	}
 }
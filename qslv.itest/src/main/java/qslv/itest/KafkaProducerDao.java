@@ -1,16 +1,41 @@
 package qslv.itest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.http.HttpStatus;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import qslv.common.kafka.TraceableMessage;
 import qslv.transaction.request.CancelReservationRequest;
 import qslv.transaction.request.CommitReservationRequest;
@@ -19,29 +44,87 @@ import qslv.transfer.request.TransferFulfillmentMessage;
 
 @Repository
 @DependsOn({"kafkaPropertiesConfig", "kafkaProducerConfig"})
-public class KafkaProducerDao {
+public class KafkaProducerDao implements Resettable {
 	private static final Logger log = LoggerFactory.getLogger(KafkaProducerDao.class);
+	public static final String PLAIN = "plain";
+	public static final String IDEMPOTENT = "idempotent";
+	public static final String TRANSACTIONAL = "transactional";
 
 	@Autowired
 	private ConfigProperties config;
 	
 	@Autowired
+	@Qualifier("transferFulfillmentKafkaTemplate")
 	private KafkaTemplate<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentKafkaTemplate;
 	@Autowired
+	@Qualifier("cancelFulfillmentKafkaTemplate")
 	private KafkaTemplate<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentKafkaTemplate;
 	@Autowired
+	@Qualifier("commitFulfillmentKafkaTemplate")
 	private KafkaTemplate<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentKafkaTemplate;
 	@Autowired
+	@Qualifier("transactionFulfillmentKafkaTemplate")
 	private KafkaTemplate<String, TraceableMessage<TransactionRequest>> transactionFulfillmentKafkaTemplate;
+
+	@Autowired
+	@Qualifier("transferFulfillmentPipelinedKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentPipelinedKafkaTemplate;
+	@Autowired
+	@Qualifier("cancelFulfillmentPipelinedKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentPipelinedKafkaTemplate;
+	@Autowired
+	@Qualifier("commitFulfillmentPipelinedKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentPipelinedKafkaTemplate;
+	@Autowired
+	@Qualifier("transactionFulfillmentPipelinedKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<TransactionRequest>> transactionFulfillmentPipelinedKafkaTemplate;
+
+	@Autowired
+	private KafkaTemplate<String, Object> fulfillmentKafkaTemplate;
+	@Autowired
+	private MessageKeys messageKeys;
+	@Autowired
+	private PartitionSkewMonitor partitionSkew;
+
+	private Semaphore inFlight;
+	private final Map<String, LatencyHistogram> sendLatency = new ConcurrentHashMap<>();
+	private final AtomicLong sendFailures = new AtomicLong();
+	private final AtomicLong sendsShed = new AtomicLong();
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final BlockingQueue<PendingSend> transactionQueue = new LinkedBlockingQueue<>();
+	private final AtomicInteger transactionPending = new AtomicInteger();
+	private Thread transactionCommitter;
+
+	@PostConstruct
+	void init() {
+		inFlight = new Semaphore(config.getKafkaMaxInFlightSends());
+		if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+			transactionCommitter = new Thread(this::commitTransactions, "kafka-transaction-committer");
+			transactionCommitter.setDaemon(true);
+			transactionCommitter.start();
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		if (transactionCommitter != null) {
+			transactionCommitter.interrupt();
+		}
+	}
 	
 	public void produceTransferFulfillmentMessage(TraceableMessage<TransferFulfillmentMessage> tfr) throws ResponseStatusException {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
 		try {
+			String key = messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getFromAccountNumber()), requestUuid);
+			if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+				partitionSkew.record(produceInTransaction(config.getKafkaTransferRequestQueue(), key, tfr, requestUuid).getRecordMetadata());
+				return;
+			}
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
-			ProducerRecord<String ,TraceableMessage<TransferFulfillmentMessage>> record = 
-					transferFulfillmentKafkaTemplate.send(config.getKafkaTransferRequestQueue(),
-							tfr.getPayload().getFromAccountNumber(), tfr)
-				.get().getProducerRecord();
-			log.debug("Kakfa Produce {}", record.value().getPayload());
+			SendResult<String ,TraceableMessage<TransferFulfillmentMessage>> result = 
+					transferFulfillmentKafkaTemplate.send(config.getKafkaTransferRequestQueue(), key, tfr).get();
+			partitionSkew.record(result.getRecordMetadata());
+			log.debug("Kakfa Produce {}", result.getProducerRecord().value().getPayload());
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
@@ -49,13 +132,18 @@ public class KafkaProducerDao {
 	}
 	
 	public void produceCancelMessage(TraceableMessage<CancelReservationRequest> tfr) throws ResponseStatusException {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
 		try {
+			String key = messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid);
+			if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+				partitionSkew.record(produceInTransaction(config.getKafkaCancelRequestQueue(), key, tfr, requestUuid).getRecordMetadata());
+				return;
+			}
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
-			ProducerRecord<String ,TraceableMessage<CancelReservationRequest>> record = 
-					cancelFulfillmentKafkaTemplate.send(config.getKafkaCancelRequestQueue(),
-							(tfr.getPayload()==null ? "XXXX" : tfr.getPayload().getAccountNumber() ) , tfr)
-				.get().getProducerRecord();
-			log.debug("Kakfa Produce {}", record.value().getPayload());
+			SendResult<String ,TraceableMessage<CancelReservationRequest>> result = 
+					cancelFulfillmentKafkaTemplate.send(config.getKafkaCancelRequestQueue(), key, tfr).get();
+			partitionSkew.record(result.getRecordMetadata());
+			log.debug("Kakfa Produce {}", result.getProducerRecord().value().getPayload());
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
@@ -63,13 +151,18 @@ public class KafkaProducerDao {
 	}
 	
 	public void produceCommitMessage(TraceableMessage<CommitReservationRequest> tfr) throws ResponseStatusException {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
 		try {
+			String key = messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid);
+			if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+				partitionSkew.record(produceInTransaction(config.getKafkaCommitRequestQueue(), key, tfr, requestUuid).getRecordMetadata());
+				return;
+			}
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
-			ProducerRecord<String ,TraceableMessage<CommitReservationRequest>> record = 
-					commitFulfillmentKafkaTemplate.send(config.getKafkaCommitRequestQueue(),
-							(tfr.getPayload()==null ? "XXXX" : tfr.getPayload().getAccountNumber() ), tfr)
-				.get().getProducerRecord();
-			log.debug("Kakfa Produce {}", record.value().getPayload());
+			SendResult<String ,TraceableMessage<CommitReservationRequest>> result = 
+					commitFulfillmentKafkaTemplate.send(config.getKafkaCommitRequestQueue(), key, tfr).get();
+			partitionSkew.record(result.getRecordMetadata());
+			log.debug("Kakfa Produce {}", result.getProducerRecord().value().getPayload());
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
@@ -77,16 +170,238 @@ public class KafkaProducerDao {
 	}
 	
 	public void produceTransactionMessage(TraceableMessage<TransactionRequest> tfr) throws ResponseStatusException {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
 		try {
+			String key = messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid);
+			if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+				partitionSkew.record(produceInTransaction(config.getKafkaTransactionRequestQueue(), key, tfr, requestUuid).getRecordMetadata());
+				return;
+			}
 			// retry handled internally by kafka using retries & retry.backoff.ms in properties file
-			ProducerRecord<String ,TraceableMessage<TransactionRequest>> record = 
-					transactionFulfillmentKafkaTemplate.send(config.getKafkaTransactionRequestQueue(),
-							(tfr.getPayload()==null ? "XXXX" : tfr.getPayload().getAccountNumber() ), tfr)
-				.get().getProducerRecord();
-			log.debug("Kakfa Produce {}", record.value().getPayload());
+			SendResult<String ,TraceableMessage<TransactionRequest>> result = 
+					transactionFulfillmentKafkaTemplate.send(config.getKafkaTransactionRequestQueue(), key, tfr).get();
+			partitionSkew.record(result.getRecordMetadata());
+			log.debug("Kakfa Produce {}", result.getProducerRecord().value().getPayload());
 		} catch ( Exception ex) {
 			log.debug(ex.getLocalizedMessage());
 			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex);
 		}
 	}
+
+	/*
+	 * Pipelined produce. The *Async methods return as soon as the record is handed to the producer; the future
+	 * completes on the broker ack. At most kafkaMaxInFlightSends records are unacknowledged at once; a send
+	 * beyond that is shed, its future failed with 503, rather than blocking the caller (LoadOperation.start()
+	 * must not block). Send-to-ack latency is recorded per topic.
+	 */
+	public CompletableFuture<SendResult<String, TraceableMessage<TransferFulfillmentMessage>>> produceTransferFulfillmentMessageAsync(TraceableMessage<TransferFulfillmentMessage> tfr) {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
+		return pipelined(transferFulfillmentPipelinedKafkaTemplate, config.getKafkaTransferRequestQueue(),
+				() -> messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getFromAccountNumber()), requestUuid), tfr, requestUuid);
+	}
+
+	public CompletableFuture<SendResult<String, TraceableMessage<CancelReservationRequest>>> produceCancelMessageAsync(TraceableMessage<CancelReservationRequest> tfr) {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
+		return pipelined(cancelFulfillmentPipelinedKafkaTemplate, config.getKafkaCancelRequestQueue(),
+				() -> messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid), tfr, requestUuid);
+	}
+
+	public CompletableFuture<SendResult<String, TraceableMessage<CommitReservationRequest>>> produceCommitMessageAsync(TraceableMessage<CommitReservationRequest> tfr) {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
+		return pipelined(commitFulfillmentPipelinedKafkaTemplate, config.getKafkaCommitRequestQueue(),
+				() -> messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid), tfr, requestUuid);
+	}
+
+	public CompletableFuture<SendResult<String, TraceableMessage<TransactionRequest>>> produceTransactionMessageAsync(TraceableMessage<TransactionRequest> tfr) {
+		UUID requestUuid = (tfr.getPayload()==null ? null : tfr.getPayload().getRequestUuid());
+		return pipelined(transactionFulfillmentPipelinedKafkaTemplate, config.getKafkaTransactionRequestQueue(),
+				() -> messageKeys.key((tfr.getPayload()==null ? null : tfr.getPayload().getAccountNumber()), requestUuid), tfr, requestUuid);
+	}
+
+	/*
+	 * Pushes out anything still lingering in the pipelined producers' batches, and waits for queued transactional
+	 * sends to be committed.
+	 */
+	public void flush() {
+		transferFulfillmentPipelinedKafkaTemplate.flush();
+		cancelFulfillmentPipelinedKafkaTemplate.flush();
+		commitFulfillmentPipelinedKafkaTemplate.flush();
+		transactionFulfillmentPipelinedKafkaTemplate.flush();
+		while (transactionCommitter != null && transactionPending.get() > 0 && transactionCommitter.isAlive()) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+
+	private <T extends TraceableMessage<?>> CompletableFuture<SendResult<String, T>> pipelined(KafkaTemplate<String, T> template, String topic, Supplier<String> keySupplier, T message, UUID requestUuid) {
+		if (!inFlight.tryAcquire()) {
+			sendsShed.incrementAndGet();
+			CompletableFuture<SendResult<String, T>> shed = new CompletableFuture<>();
+			shed.completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Kafka Producer send window full"));
+			return shed;
+		}
+
+		long start = System.nanoTime();
+		CompletableFuture<SendResult<String, T>> sent;
+		try {
+			String key = keySupplier.get();
+			if (TRANSACTIONAL.equals(config.getKafkaProducerMode())) {
+				// queued for the committer; completes when the transaction carrying it commits
+				PendingSend pending = new PendingSend(topic, key, message, requestUuid);
+				transactionPending.incrementAndGet();
+				transactionQueue.add(pending);
+				sent = pending.result.thenApply(result -> KafkaProducerDao.<T>castResult(result));
+			} else {
+				sent = template.send(topic, key, message).completable();
+			}
+		} catch (Exception ex) {
+			inFlight.release();
+			sendFailures.incrementAndGet();
+			CompletableFuture<SendResult<String, T>> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer failure", ex));
+			return failed;
+		}
+		return sent.whenComplete((result, ex) -> {
+			inFlight.release();
+			if (ex == null) {
+				sendLatency.computeIfAbsent(topic, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+				partitionSkew.record(result.getRecordMetadata());
+			} else {
+				sendFailures.incrementAndGet();
+				log.debug(ex.getLocalizedMessage());
+			}
+		});
+	}
+
+	/*
+	 * Transactional mode: the request and a bookkeeping record keyed the same way are committed together,
+	 * so a read_committed consumer sees both or neither. The bookkeeping value ties the request's
+	 * requestUuid and correlationId to the topic it was sent on.
+	 */
+	private SendResult<String, Object> produceInTransaction(String topic, String key, TraceableMessage<?> message, UUID requestUuid) throws Exception {
+		ListenableFuture<SendResult<String, Object>> sent = fulfillmentKafkaTemplate.executeInTransaction(operations -> {
+			ListenableFuture<SendResult<String, Object>> request = operations.send(topic, key, message);
+			operations.send(config.getKafkaBookkeepingTopic(), key, bookkeeping(topic, key, message, requestUuid));
+			return request;
+		});
+		SendResult<String, Object> result = sent.get();
+		log.debug("Kakfa Produce in transaction {}", message.getPayload());
+		return result;
+	}
+
+	private static class PendingSend {
+		private final String topic;
+		private final String key;
+		private final TraceableMessage<?> message;
+		private final UUID requestUuid;
+		private final CompletableFuture<SendResult<String, Object>> result = new CompletableFuture<>();
+
+		PendingSend(String topic, String key, TraceableMessage<?> message, UUID requestUuid) {
+			this.topic = topic;
+			this.key = key;
+			this.message = message;
+			this.requestUuid = requestUuid;
+		}
+	}
+
+	/*
+	 * Pipelined transactional sends are committed kafkaTransactionBatch at a time, each with its bookkeeping record.
+	 * A batch closes when full or kafkaTransactionLingerMs after its first record, the way linger.ms closes a
+	 * producer batch, so the pipelined and the plain modes are measured under the same batching rules.
+	 */
+	private void commitTransactions() {
+		List<PendingSend> batch = new ArrayList<>();
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				batch.add(transactionQueue.take());
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getKafkaTransactionLingerMs());
+				while (batch.size() < config.getKafkaTransactionBatch()) {
+					PendingSend next = transactionQueue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (!batch.isEmpty()) {
+				commit(batch);
+				batch.clear();
+			}
+		}
+		transactionQueue.drainTo(batch);
+		batch.forEach(pending -> pending.result.completeExceptionally(
+				new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Kafka Producer shut down")));
+		transactionPending.addAndGet(-batch.size());
+	}
+
+	private void commit(List<PendingSend> batch) {
+		try {
+			List<ListenableFuture<SendResult<String, Object>>> requests = fulfillmentKafkaTemplate.executeInTransaction(operations -> {
+				List<ListenableFuture<SendResult<String, Object>>> sent = new ArrayList<>();
+				for (PendingSend pending : batch) {
+					sent.add(operations.send(pending.topic, pending.key, pending.message));
+					operations.send(config.getKafkaBookkeepingTopic(), pending.key,
+							bookkeeping(pending.topic, pending.key, pending.message, pending.requestUuid));
+				}
+				return sent;
+			});
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).result.complete(requests.get(i).get());
+			}
+			log.debug("Kakfa Produce {} in transaction", batch.size());
+		} catch (Exception ex) {
+			log.debug(ex.getLocalizedMessage());
+			batch.forEach(pending -> pending.result.completeExceptionally(ex));
+		} finally {
+			transactionPending.addAndGet(-batch.size());
+		}
+	}
+
+	private String bookkeeping(String topic, String key, TraceableMessage<?> message, UUID requestUuid) {
+		Map<String, Object> bookkeeping = new LinkedHashMap<>();
+		bookkeeping.put("topic", topic);
+		bookkeeping.put("key", key);
+		bookkeeping.put("requestUuid", requestUuid == null ? null : requestUuid.toString());
+		bookkeeping.put("correlationId", message.getCorrelationId());
+		bookkeeping.put("producedAt", LocalDateTime.now().toString());
+		try {
+			return mapper.writeValueAsString(bookkeeping);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> SendResult<String, T> castResult(SendResult<String, Object> result) {
+		return (SendResult<String, T>) (SendResult<String, ?>) result;
+	}
+
+	public int getInFlight() {
+		return config.getKafkaMaxInFlightSends() - inFlight.availablePermits();
+	}
+
+	public long getSendFailures() {
+		return sendFailures.get();
+	}
+
+	public long getSendsShed() {
+		return sendsShed.get();
+	}
+
+	public Map<String, LatencyHistogram> getSendLatency() {
+		return new TreeMap<>(sendLatency);
+	}
+
+	@Override
+	public void reset() {
+		sendLatency.values().forEach(LatencyHistogram::reset);
+		sendFailures.set(0);
+		sendsShed.set(0);
+	}
+
+	public void logStatistics() {
+		getSendLatency().forEach((topic, latency) -> log.info("{} send-to-ack {}", topic, latency.summary()));
+		log.info("sendFailures={} sendsShed={} inFlight={}", getSendFailures(), getSendsShed(), getInFlight());
+	}
 }
@@ -0,0 +1,85 @@
+package qslv.itest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/*
+ * Named producer tunings laid over the properties file, selected by qslv.kafka-producer-profile.
+ * "default" leaves the file as is. "latency" sends every record as soon as it is handed over, one request
+ * in flight, leader ack only. "throughput" lingers to fill large compressed batches with several requests
+ * in flight. "idempotent": all replicas ack, and the producer's retries can neither duplicate nor reorder a record.
+ * That is not exactly-once; a record the application sends twice is written twice. KafkaProducerDao's transactional
+ * mode is the one that commits records atomically.
+ */
+public final class KafkaProducerProfiles {
+	public static final String DEFAULT = "default";
+	public static final String LATENCY = "latency";
+	public static final String THROUGHPUT = "throughput";
+	public static final String IDEMPOTENT = "idempotent";
+
+	private static final Map<String, Map<String, Object>> PROFILES = new HashMap<>();
+	static {
+		PROFILES.put(DEFAULT, Collections.emptyMap());
+
+		Map<String, Object> latency = new HashMap<>();
+		latency.put(ProducerConfig.LINGER_MS_CONFIG, "0");
+		latency.put(ProducerConfig.BATCH_SIZE_CONFIG, "16384");
+		latency.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+		latency.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "1");
+		latency.put(ProducerConfig.ACKS_CONFIG, "1");
+		PROFILES.put(LATENCY, Collections.unmodifiableMap(latency));
+
+		Map<String, Object> throughput = new HashMap<>();
+		throughput.put(ProducerConfig.LINGER_MS_CONFIG, "20");
+		throughput.put(ProducerConfig.BATCH_SIZE_CONFIG, "131072");
+		throughput.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+		throughput.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+		throughput.put(ProducerConfig.ACKS_CONFIG, "1");
+		throughput.put(ProducerConfig.BUFFER_MEMORY_CONFIG, "67108864");
+		PROFILES.put(THROUGHPUT, Collections.unmodifiableMap(throughput));
+
+		Map<String, Object> idempotent = new HashMap<>();
+		idempotent.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+		idempotent.put(ProducerConfig.ACKS_CONFIG, "all");
+		idempotent.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+		idempotent.put(ProducerConfig.RETRIES_CONFIG, String.valueOf(Integer.MAX_VALUE));
+		idempotent.put(ProducerConfig.LINGER_MS_CONFIG, "5");
+		PROFILES.put(IDEMPOTENT, Collections.unmodifiableMap(idempotent));
+	}
+
+	private KafkaProducerProfiles() {
+	}
+
+	public static Map<String, Object> overrides(String profile) {
+		Map<String, Object> overrides = PROFILES.get(profile);
+		if (overrides == null) {
+			throw new IllegalArgumentException(String.format("Unknown Kafka producer profile %s.", profile));
+		}
+		return overrides;
+	}
+
+	public static Map<String, Object> apply(Map<String, Object> properties, String profile) {
+		Map<String, Object> tuned = new HashMap<>(properties);
+		tuned.putAll(overrides(profile));
+		return tuned;
+	}
+
+	/*
+	 * What an idempotent or transactional producer needs regardless of profile. In-flight requests are capped at
+	 * the 5 the broker tracks sequence numbers for; a lower setting is kept.
+	 */
+	public static Map<String, Object> idempotent(Map<String, Object> properties) {
+		Map<String, Object> idempotent = new HashMap<>(properties);
+		idempotent.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+		idempotent.put(ProducerConfig.ACKS_CONFIG, "all");
+		idempotent.put(ProducerConfig.RETRIES_CONFIG, String.valueOf(Integer.MAX_VALUE));
+		Object inFlight = properties.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION);
+		if (inFlight == null || Integer.parseInt(inFlight.toString().trim()) > 5) {
+			idempotent.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+		}
+		return idempotent;
+	}
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,7 +37,15 @@ public class KafkaPropertiesConfig {
 				throw resourceEx;
 			}
 		}
-		return new HashMap(kafkaconfig);
+		Map<String,Object> listenerConfig = new HashMap(kafkaconfig);
+		// read_committed hides fulfillment requests and replies from aborted producer transactions
+		listenerConfig.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, configProperties.getKafkaListenerIsolationLevel());
+		// poll and fetch sizing, so batch listeners get full batches when replies pile up
+		listenerConfig.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(configProperties.getKafkaMaxPollRecords()));
+		listenerConfig.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(configProperties.getKafkaFetchMinBytes()));
+		listenerConfig.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(configProperties.getKafkaFetchMaxWaitMs()));
+		listenerConfig.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(configProperties.getKafkaMaxPartitionFetchBytes()));
+		return listenerConfig;
 	}
 	
 }
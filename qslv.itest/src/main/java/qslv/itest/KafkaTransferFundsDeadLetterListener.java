@@ -1,6 +1,5 @@
 package qslv.itest;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +11,7 @@ import org.springframework.stereotype.Component;
 public class KafkaTransferFundsDeadLetterListener {
 	private static final Logger log = LoggerFactory.getLogger(KafkaTransferFundsDeadLetterListener.class);
 
-	public void drain(ArrayBlockingQueue<?> queue) {
+	public void drain(ReplyBuffer<?> queue) {
 		queue.clear();
 	}
 
@@ -21,19 +20,17 @@ public class KafkaTransferFundsDeadLetterListener {
 	}
 
 	@Autowired
-	ArrayBlockingQueue<String> deadLetterExchangeQueue;
+	ReplyBuffer<String> deadLetterExchangeQueue;
+	@Autowired
+	DeadLetterAnalyzer deadLetterAnalyzer;
 
 	@KafkaListener(containerFactory = "deadLetterListenerContainerFactory", topics = {
 			"dlq.transfer.requests" }, groupId = "foo")
 	public void listen(@Payload String message) {
 		log.debug("onMessage ENTRY");
 		log.debug(message);
-		try {
-			deadLetterExchangeQueue.put(message);
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			log.debug(e.getLocalizedMessage());
-		}
+		deadLetterAnalyzer.deadLetter(message);
+		deadLetterExchangeQueue.offer(message);
 		log.debug("onMessage EXIT");
 	}
 }
@@ -1,6 +1,5 @@
 package qslv.itest;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +13,7 @@ import qslv.transfer.request.TransferFulfillmentMessage;
 public class KafkaTransferFundsRequestListener {
 	private static final Logger log = LoggerFactory.getLogger(KafkaTransferFundsRequestListener.class);
 
-	public void drain(ArrayBlockingQueue<?> queue) {
+	public void drain(ReplyBuffer<?> queue) {
 		queue.clear();
 	}
 
@@ -23,7 +22,9 @@ public class KafkaTransferFundsRequestListener {
 	}
 
 	@Autowired
-	ArrayBlockingQueue<TransferFulfillmentMessage> transferFundsRequestexchangeQueue;
+	ReplyBuffer<TransferFulfillmentMessage> transferFundsRequestexchangeQueue;
+	@Autowired
+	DeadLetterAnalyzer deadLetterAnalyzer;
 
 	@KafkaListener(topics = { "online.transfer.requests" }, groupId = "foo")
 	public void listen(@Payload TraceableMessage<TransferFulfillmentMessage> message) {
@@ -31,12 +32,8 @@ public class KafkaTransferFundsRequestListener {
 		// @SuppressWarnings("unchecked")
 		// TraceableMessage<TransferFulfillmentMessage> message =
 		// (TraceableMessage<TransferFulfillmentMessage>)data.value();
-		try {
-			transferFundsRequestexchangeQueue.put(message.getPayload());
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			log.debug(e.getLocalizedMessage());
-		}
+		deadLetterAnalyzer.request(message.getPayload() == null ? null : message.getPayload().getRequestUuid());
+		transferFundsRequestexchangeQueue.offer(message.getPayload());
 		log.debug("{} From {} To {} Amount {} Reservation {}", message.getPayload().getRequestUuid(),
 				message.getPayload().getFromAccountNumber(), message.getPayload().getToAccountNumber(),
 				message.getPayload().getTransactionAmount(), message.getPayload().getReservationUuid());
@@ -0,0 +1,102 @@
+package qslv.itest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Open-loop load generator. Calls are scheduled at a fixed (or linearly ramping) arrival rate and
+ * issued whether or not earlier calls have answered. Latency is charged from the scheduled start time.
+ */
+@Component
+public class LoadGenerator {
+	private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+	private static final double MIN_RATE = 1.0;
+
+	@Autowired
+	private ConfigProperties config;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public LoadReport run(String name, LoadOperation operation) {
+		return run(name, operation, config.getLoadStartRate(), config.getLoadTargetRate(),
+				TimeUnit.SECONDS.toNanos(config.getLoadRampSeconds()), TimeUnit.SECONDS.toNanos(config.getLoadDurationSeconds()));
+	}
+
+	public LoadReport run(String name, LoadOperation operation, double startRate, double targetRate, long rampNanos, long durationNanos) {
+		log.info("run ENTRY {} rate {}/s -> {}/s ramp={}s duration={}s", name, startRate, targetRate,
+				TimeUnit.NANOSECONDS.toSeconds(rampNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+		LoadReport report = new LoadReport(name, targetRate);
+		AtomicInteger inFlight = new AtomicInteger();
+		long startNanos = System.nanoTime();
+		long endNanos = startNanos + durationNanos;
+
+		for (long intended = startNanos; intended < endNanos; ) {
+			long now = System.nanoTime();
+			if (intended > now) {
+				LockSupport.parkNanos(intended - now);
+			}
+			issue(operation, intended, report, inFlight);
+
+			double rate = rateAt(intended - startNanos, startRate, targetRate, rampNanos);
+			intended += (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(MIN_RATE, rate));
+		}
+
+		awaitInFlight(inFlight);
+		report.complete(System.nanoTime() - startNanos);
+
+		log.info("run EXIT {}", report.summary());
+		return report;
+	}
+
+	private void issue(LoadOperation operation, final long intendedNanos, LoadReport report, AtomicInteger inFlight) {
+		if (inFlight.incrementAndGet() > config.getLoadMaxInFlight()) {
+			inFlight.decrementAndGet();
+			report.rejected();
+			return;
+		}
+		report.sent();
+		final long sentNanos = System.nanoTime();
+		CompletableFuture<?> future;
+		try {
+			future = operation.start();
+		} catch (RuntimeException ex) {
+			CompletableFuture<Object> failed = new CompletableFuture<>();
+			failed.completeExceptionally(ex);
+			future = failed;
+		}
+		future.whenComplete((result, ex) -> {
+			long doneNanos = System.nanoTime();
+			inFlight.decrementAndGet();
+			report.record(doneNanos - intendedNanos, doneNanos - sentNanos, ex);
+		});
+	}
+
+	private void awaitInFlight(AtomicInteger inFlight) {
+		long drainNanos = TimeUnit.MILLISECONDS.toNanos(
+				(long) Math.max(1, config.getRestAttempts()) * (config.getRestTimeout() + config.getRestBackoffDelayMax()));
+		long deadline = System.nanoTime() + drainNanos;
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		if (inFlight.get() > 0) {
+			log.warn("awaitInFlight {} calls still outstanding after {}ms", inFlight.get(), TimeUnit.NANOSECONDS.toMillis(drainNanos));
+		}
+	}
+
+	static double rateAt(long offsetNanos, double startRate, double targetRate, long rampNanos) {
+		if (rampNanos <= 0 || offsetNanos >= rampNanos) {
+			return targetRate;
+		}
+		return startRate + (targetRate - startRate) * offsetNanos / rampNanos;
+	}
+}
@@ -0,0 +1,12 @@
+package qslv.itest;
+
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * A single logical call issued by the load generator. start() must not block; the returned
+ * future completes when the call (including any retries) has finished.
+ */
+@FunctionalInterface
+public interface LoadOperation {
+	CompletableFuture<?> start();
+}
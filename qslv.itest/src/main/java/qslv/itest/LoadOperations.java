@@ -0,0 +1,339 @@
+package qslv.itest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import qslv.common.TraceableRequest;
+import qslv.common.kafka.TraceableMessage;
+import qslv.reservefunds.request.ReserveFundsRequest;
+import qslv.transaction.request.CancelReservationRequest;
+import qslv.transaction.request.CommitReservationRequest;
+import qslv.transaction.request.ReservationRequest;
+import qslv.transaction.request.TransactionRequest;
+import qslv.transfer.request.TransferFulfillmentMessage;
+import qslv.transfer.request.TransferFundsRequest;
+
+/*
+ * Builds the calls driven by the load harness. Every call carries a new requestUuid and rotates
+ * over a pool of pre-funded LOAD_ACCOUNT_n accounts so the services do not serialize on one row.
+ * Commit and cancel calls include the reservation they settle. byName() returns the non-blocking form
+ * used by the open-loop LoadGenerator, blockingByName() the form used by the closed-loop ConcurrencySweep.
+ * transactionFulfillment and transactionExchange go through Kafka instead of REST.
+ */
+@Component
+public class LoadOperations {
+	private static final Logger log = LoggerFactory.getLogger(LoadOperations.class);
+
+	public static String LOAD_ACCOUNT = "LOAD_ACCOUNT_";
+	public static String LOAD_TAXONOMY_ID = "9.9.9.9.9";
+	public static String VALID_STATUS = "EF";
+	public static String JSON_DATA = "{\"value\": 234934}";
+	public static long LOAD_BALANCE = 1_000_000_000_000L;
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private TransactionDao transactionDao;
+	@Autowired
+	private ReserveFundsDao reserveFundsDao;
+	@Autowired
+	private TransferFundsDao transferFundsDao;
+	@Autowired
+	private JdbcDao jdbcDao;
+	@Autowired
+	private KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	private FulfillmentExchangeDao fulfillmentExchangeDao;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	public void setupAccounts() {
+		log.info("setupAccounts ENTRY {} accounts", config.getLoadAccounts());
+		List<JdbcDao.BalanceRow> balances = new ArrayList<>();
+		List<JdbcDao.AccountRow> accounts = new ArrayList<>();
+		for (int i = 0; i < config.getLoadAccounts(); i++) {
+			balances.add(new JdbcDao.BalanceRow(LOAD_ACCOUNT + i, LOAD_BALANCE));
+			accounts.add(new JdbcDao.AccountRow(LOAD_ACCOUNT + i, VALID_STATUS));
+		}
+		jdbcDao.setupAccountBalances(balances);
+		jdbcDao.setupAccounts(accounts);
+		log.info("setupAccounts EXIT");
+	}
+
+	public LoadOperation byName(String name) {
+		switch (name) {
+		case "reserveFunds":
+			return reserveFunds();
+		case "postTransaction":
+			return postTransaction();
+		case "commitReservation":
+			return commitReservation();
+		case "cancelReservation":
+			return cancelReservation();
+		case "transferFunds":
+			return transferFunds();
+		case "transactionFulfillment":
+			return transactionFulfillment();
+		case "transactionExchange":
+			return transactionExchange();
+		default:
+			throw new IllegalArgumentException(String.format("Unknown load operation %s.", name));
+		}
+	}
+
+	public Callable<?> blockingByName(String name) {
+		switch (name) {
+		case "reserveFunds":
+			return () -> reserveFundsDao.reserveFunds(headers(ReserveFundsRequest.version1_0), reserveFundsRequest());
+		case "postTransaction":
+			return () -> transactionDao.postTransaction(headers(TransactionRequest.VERSION_1_0), transactionRequest());
+		case "commitReservation":
+			return () -> {
+				ReservationRequest reservation = reservationRequest();
+				UUID reservationUuid = transactionDao.postReservation(headers(ReservationRequest.VERSION_1_0), reservation)
+						.getResource().getTransactionUuid();
+				return transactionDao.commitReservation(headers(CommitReservationRequest.VERSION_1_0),
+						commitRequest(reservation.getAccountNumber(), reservationUuid));
+			};
+		case "cancelReservation":
+			return () -> {
+				ReservationRequest reservation = reservationRequest();
+				UUID reservationUuid = transactionDao.postReservation(headers(ReservationRequest.VERSION_1_0), reservation)
+						.getResource().getTransactionUuid();
+				return transactionDao.cancelReservation(headers(CancelReservationRequest.VERSION_1_0),
+						cancelRequest(reservation.getAccountNumber(), reservationUuid));
+			};
+		case "transferFunds":
+			return () -> transferFundsDao.transferFunds(headers(TransferFundsRequest.Version1_0), transferFundsRequest());
+		case "transactionFulfillment":
+			return () -> {
+				kafkaProducerDao.produceTransactionMessage(traceable(transactionRequest()));
+				return null;
+			};
+		case "transactionExchange":
+			return () -> fulfillmentExchangeDao.exchangeTransactionMessage(traceable(transactionRequest())).get();
+		default:
+			throw new IllegalArgumentException(String.format("Unknown load operation %s.", name));
+		}
+	}
+
+	// the configured *-url values blockingByName(name) calls; the Kafka operations use no HTTP connection
+	public List<String> restUrls(String name) {
+		switch (name) {
+		case "reserveFunds":
+			return Collections.singletonList(config.getReserveFundsUrl());
+		case "postTransaction":
+			return Collections.singletonList(config.getTransactionUrl());
+		case "commitReservation":
+			return Arrays.asList(config.getReservationUrl(), config.getCommitReservationUrl());
+		case "cancelReservation":
+			return Arrays.asList(config.getReservationUrl(), config.getCancelReservationUrl());
+		case "transferFunds":
+			return Collections.singletonList(config.getTransferFundsUrl());
+		case "transactionFulfillment":
+		case "transactionExchange":
+			return Collections.emptyList();
+		default:
+			throw new IllegalArgumentException(String.format("Unknown load operation %s.", name));
+		}
+	}
+
+	public LoadOperation reserveFunds() {
+		return () -> reserveFundsDao.reserveFundsAsync(headers(ReserveFundsRequest.version1_0), reserveFundsRequest());
+	}
+
+	public LoadOperation postTransaction() {
+		return () -> transactionDao.postTransactionAsync(headers(TransactionRequest.VERSION_1_0), transactionRequest());
+	}
+
+	public LoadOperation commitReservation() {
+		return () -> {
+			ReservationRequest reservation = reservationRequest();
+			return transactionDao.postReservationAsync(headers(ReservationRequest.VERSION_1_0), reservation)
+				.thenCompose(response -> transactionDao.commitReservationAsync(headers(CommitReservationRequest.VERSION_1_0),
+						commitRequest(reservation.getAccountNumber(), response.getResource().getTransactionUuid())));
+		};
+	}
+
+	public LoadOperation cancelReservation() {
+		return () -> {
+			ReservationRequest reservation = reservationRequest();
+			return transactionDao.postReservationAsync(headers(ReservationRequest.VERSION_1_0), reservation)
+				.thenCompose(response -> transactionDao.cancelReservationAsync(headers(CancelReservationRequest.VERSION_1_0),
+						cancelRequest(reservation.getAccountNumber(), response.getResource().getTransactionUuid())));
+		};
+	}
+
+	public LoadOperation transferFunds() {
+		return () -> transferFundsDao.transferFundsAsync(headers(TransferFundsRequest.Version1_0), transferFundsRequest());
+	}
+
+	/*
+	 * Completes on the broker ack, not on the fulfillment reply.
+	 */
+	public LoadOperation transactionFulfillment() {
+		return () -> kafkaProducerDao.produceTransactionMessageAsync(traceable(transactionRequest()));
+	}
+
+	/*
+	 * Completes on the fulfillment reply.
+	 */
+	public LoadOperation transactionExchange() {
+		return () -> fulfillmentExchangeDao.exchangeTransactionMessage(traceable(transactionRequest()));
+	}
+
+	ReserveFundsRequest reserveFundsRequest() {
+		ReserveFundsRequest request = new ReserveFundsRequest();
+		request.setAccountNumber(nextAccount());
+		request.setDebitCardNumber(null);
+		request.setRequestUUID(UUID.randomUUID());
+		request.setTransactionAmount(-1L);
+		request.setTransactionMetaDataJSON(JSON_DATA);
+		request.setProtectAgainstOverdraft(false);
+		return request;
+	}
+
+	TransactionRequest transactionRequest() {
+		TransactionRequest request = new TransactionRequest();
+		request.setAccountNumber(nextAccount());
+		request.setDebitCardNumber(null);
+		request.setRequestUuid(UUID.randomUUID());
+		request.setTransactionAmount(-1L);
+		request.setTransactionMetaDataJson(JSON_DATA);
+		request.setAuthorizeAgainstBalance(true);
+		return request;
+	}
+
+	ReservationRequest reservationRequest() {
+		ReservationRequest request = new ReservationRequest();
+		request.setAccountNumber(nextAccount());
+		request.setDebitCardNumber(null);
+		request.setRequestUuid(UUID.randomUUID());
+		request.setTransactionAmount(-1L);
+		request.setTransactionMetaDataJson(JSON_DATA);
+		request.setAuthorizeAgainstBalance(true);
+		return request;
+	}
+
+	CommitReservationRequest commitRequest(String accountNumber, UUID reservationUuid) {
+		CommitReservationRequest request = new CommitReservationRequest();
+		request.setAccountNumber(accountNumber);
+		request.setRequestUuid(UUID.randomUUID());
+		request.setReservationUuid(reservationUuid);
+		request.setTransactionAmount(-1L);
+		request.setTransactionMetaDataJson(JSON_DATA);
+		return request;
+	}
+
+	CancelReservationRequest cancelRequest(String accountNumber, UUID reservationUuid) {
+		CancelReservationRequest request = new CancelReservationRequest();
+		request.setAccountNumber(accountNumber);
+		request.setRequestUuid(UUID.randomUUID());
+		request.setReservationUuid(reservationUuid);
+		request.setTransactionMetaDataJson(JSON_DATA);
+		return request;
+	}
+
+	TransferFundsRequest transferFundsRequest() {
+		long next = sequence.getAndIncrement();
+		TransferFundsRequest request = new TransferFundsRequest();
+		request.setRequestUuid(UUID.randomUUID());
+		request.setFromAccountNumber(LOAD_ACCOUNT + (next % config.getLoadAccounts()));
+		request.setToAccountNumber(LOAD_ACCOUNT + ((next + 1) % config.getLoadAccounts()));
+		request.setTransactionAmount(1L);
+		request.setTransactionJsonMetaData(JSON_DATA);
+		return request;
+	}
+
+	TransferFulfillmentMessage transferFulfillmentMessage() {
+		long next = sequence.getAndIncrement();
+		TransferFulfillmentMessage message = new TransferFulfillmentMessage();
+		message.setFromAccountNumber(LOAD_ACCOUNT + (next % config.getLoadAccounts()));
+		message.setRequestUuid(UUID.randomUUID());
+		message.setReservationUuid(UUID.randomUUID());
+		message.setToAccountNumber(LOAD_ACCOUNT + ((next + 1) % config.getLoadAccounts()));
+		message.setTransactionAmount(1L);
+		message.setTransactionMetaDataJson(JSON_DATA);
+		message.setVersion(TransferFulfillmentMessage.version1_0);
+		return message;
+	}
+
+	/*
+	 * A record for one of the fulfillment request topics, keyed by account. Commits and cancels name
+	 * reservations that do not exist and are rejected downstream; they exercise the producer only.
+	 */
+	ProducerRecord<String, Object> fulfillmentRecord(String topic) {
+		if (topic.equals(config.getKafkaTransferRequestQueue())) {
+			TransferFulfillmentMessage transfer = transferFulfillmentMessage();
+			return new ProducerRecord<>(topic, transfer.getFromAccountNumber(), traceable(transfer));
+		} else if (topic.equals(config.getKafkaCancelRequestQueue())) {
+			CancelReservationRequest cancel = cancelRequest(nextAccount(), UUID.randomUUID());
+			return new ProducerRecord<>(topic, cancel.getAccountNumber(), traceable(cancel));
+		} else if (topic.equals(config.getKafkaCommitRequestQueue())) {
+			CommitReservationRequest commit = commitRequest(nextAccount(), UUID.randomUUID());
+			return new ProducerRecord<>(topic, commit.getAccountNumber(), traceable(commit));
+		} else if (topic.equals(config.getKafkaTransactionRequestQueue())) {
+			TransactionRequest transaction = transactionRequest();
+			return new ProducerRecord<>(topic, transaction.getAccountNumber(), traceable(transaction));
+		}
+		throw new IllegalArgumentException(String.format("Unknown fulfillment topic %s.", topic));
+	}
+
+	/*
+	 * fulfillmentRecord(requestTopic) addressed to the request topic's benchmark twin, so benchmark traffic never
+	 * reaches the fulfillment services.
+	 */
+	ProducerRecord<String, Object> benchmarkRecord(String requestTopic) {
+		ProducerRecord<String, Object> record = fulfillmentRecord(requestTopic);
+		return new ProducerRecord<>(benchmarkTopic(requestTopic), record.key(), record.value());
+	}
+
+	String benchmarkTopic(String requestTopic) {
+		if (requestTopic.equals(config.getKafkaTransferRequestQueue())) {
+			return config.getKafkaBenchTransferTopic();
+		} else if (requestTopic.equals(config.getKafkaCancelRequestQueue())) {
+			return config.getKafkaBenchCancelTopic();
+		} else if (requestTopic.equals(config.getKafkaCommitRequestQueue())) {
+			return config.getKafkaBenchCommitTopic();
+		} else if (requestTopic.equals(config.getKafkaTransactionRequestQueue())) {
+			return config.getKafkaBenchTransactionTopic();
+		}
+		throw new IllegalArgumentException(String.format("Unknown fulfillment topic %s.", requestTopic));
+	}
+
+	<T> TraceableMessage<T> traceable(T payload) {
+		TraceableMessage<T> traceable = new TraceableMessage<>();
+		traceable.setProducerAit(config.getAitid());
+		traceable.setBusinessTaxonomyId(LOAD_TAXONOMY_ID);
+		traceable.setCorrelationId(UUID.randomUUID().toString());
+		traceable.setPayload(payload);
+		traceable.setMessageCreationTime(LocalDateTime.now());
+		return traceable;
+	}
+
+	HashMap<String, String> headers(String version) {
+		HashMap<String, String> headerMap = new HashMap<>();
+		headerMap.put(TraceableRequest.AIT_ID, config.getAitid());
+		headerMap.put(TraceableRequest.BUSINESS_TAXONOMY_ID, LOAD_TAXONOMY_ID);
+		headerMap.put(TraceableRequest.CORRELATION_ID, UUID.randomUUID().toString());
+		headerMap.put(TraceableRequest.ACCEPT_VERSION, version);
+		return headerMap;
+	}
+
+	private String nextAccount() {
+		return LOAD_ACCOUNT + (sequence.getAndIncrement() % config.getLoadAccounts());
+	}
+}
@@ -0,0 +1,100 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Results of one load run. responseTime is measured from the scheduled start of each call, so queueing
+ * behind a slow service is charged to the calls that waited (no coordinated omission); serviceTime is
+ * measured from the moment the call was actually issued.
+ */
+public class LoadReport {
+	private final String name;
+	private final double targetRate;
+	private final LatencyHistogram responseTime = new LatencyHistogram();
+	private final LatencyHistogram serviceTime = new LatencyHistogram();
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+	private volatile long elapsedNanos;
+
+	public LoadReport(String name, double targetRate) {
+		this.name = name;
+		this.targetRate = targetRate;
+	}
+
+	void sent() {
+		sent.incrementAndGet();
+	}
+
+	void rejected() {
+		rejected.incrementAndGet();
+	}
+
+	void record(long responseNanos, long serviceNanos, Throwable failure) {
+		responseTime.record(responseNanos);
+		serviceTime.record(serviceNanos);
+		if (failure != null) {
+			errors.incrementAndGet();
+			Throwable cause = failure.getCause() != null && failure instanceof CompletionException ? failure.getCause() : failure;
+			errorsByType.computeIfAbsent(cause.getClass().getSimpleName(), k -> new LongAdder()).increment();
+		}
+	}
+
+	void complete(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public String getName() {
+		return name;
+	}
+	public double getTargetRate() {
+		return targetRate;
+	}
+	public LatencyHistogram getResponseTime() {
+		return responseTime;
+	}
+	public LatencyHistogram getServiceTime() {
+		return serviceTime;
+	}
+	public long getSent() {
+		return sent.get();
+	}
+	public long getCompleted() {
+		return responseTime.getCount();
+	}
+	public long getErrors() {
+		return errors.get();
+	}
+	public long getRejected() {
+		return rejected.get();
+	}
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0.0 : getCompleted() * 1e9 / elapsedNanos;
+	}
+	public Map<String, Long> getErrorsByType() {
+		Map<String, Long> result = new TreeMap<>();
+		errorsByType.forEach((type, count) -> result.put(type, count.sum()));
+		return result;
+	}
+
+	public String summary() {
+		return String.format("%s target=%.1f/s achieved=%.1f/s sent=%d completed=%d errors=%d rejected=%d%n"
+				+ "  response time: %s%n  service time:  %s%n  errors: %s",
+				name, targetRate, getThroughput(), getSent(), getCompleted(), getErrors(), getRejected(),
+				responseTime.summary(), serviceTime.summary(), getErrorsByType());
+	}
+
+	@Override
+	public String toString() {
+		return summary();
+	}
+}
@@ -0,0 +1,41 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * COPY loads qslv.bulk-load-accounts accounts, balances, debit cards and overdraft instructions and
+ * qslv.bulk-load-transactions historical transactions. Not part of IntegrationSuiteTest. Rerunning after a failure
+ * resumes from the checkpoints; a completed table is skipped.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Ltest_BulkLoad {
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	BulkLoader bulkLoader;
+	@Autowired
+	JdbcDao jdbcDao;
+
+	@Test
+	void testLoadAll() throws Exception {
+		// - setup --------------------
+
+		// - execute ------------------
+		List<JdbcDao.BatchLoad> loads = bulkLoader.loadAll();
+
+		// - verify -------------------
+		assertEquals(5, loads.size());
+		assertEquals(LoadOperations.LOAD_BALANCE,
+				jdbcDao.selectBalance(BulkLoader.BULK_ACCOUNT + (config.getBulkLoadAccounts() - 1)));
+	}
+}
@@ -0,0 +1,70 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Seeds qslv.fixture-accounts FIXTURE_ACCOUNT_n accounts, each with a balance and a debit card, and an overdraft
+ * instruction on every tenth, through the JdbcDao batch loaders, which log rows/sec per chunked load. Not part of
+ * IntegrationSuiteTest. Rows are built a slice at a time so ten million accounts fit in the heap.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Ltest_FixtureLoad {
+	public static String FIXTURE_ACCOUNT = "FIXTURE_ACCOUNT_";
+	public static String FIXTURE_DEBIT = "FIXTURE_DEBIT_";
+	private static final int SLICE = 100_000;
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	JdbcDao jdbcDao;
+
+	@Test
+	void testLoadPopulation() {
+		// - setup --------------------
+		Map<String, Long> totals = new LinkedHashMap<>();
+
+		// - execute ------------------
+		for (int first = 0; first < config.getFixtureAccounts(); first += SLICE) {
+			int last = Math.min(config.getFixtureAccounts(), first + SLICE);
+			List<JdbcDao.AccountRow> accounts = new ArrayList<>();
+			List<JdbcDao.BalanceRow> balances = new ArrayList<>();
+			List<JdbcDao.DebitRow> debits = new ArrayList<>();
+			List<JdbcDao.OverdraftRow> overdrafts = new ArrayList<>();
+			for (int i = first; i < last; i++) {
+				accounts.add(new JdbcDao.AccountRow(FIXTURE_ACCOUNT + i, LoadOperations.VALID_STATUS));
+				balances.add(new JdbcDao.BalanceRow(FIXTURE_ACCOUNT + i, LoadOperations.LOAD_BALANCE));
+				debits.add(new JdbcDao.DebitRow(FIXTURE_DEBIT + i, FIXTURE_ACCOUNT + i, LoadOperations.VALID_STATUS));
+				if (i % 10 == 0) {
+					overdrafts.add(new JdbcDao.OverdraftRow(FIXTURE_ACCOUNT + i, FIXTURE_ACCOUNT + ((i + 1) % config.getFixtureAccounts()),
+							LoadOperations.VALID_STATUS, "2020/01/01", "2030/01/01", 1));
+				}
+			}
+			add(totals, jdbcDao.setupAccounts(accounts));
+			add(totals, jdbcDao.setupAccountBalances(balances));
+			add(totals, jdbcDao.setupDebits(debits));
+			// a rerun would duplicate the instructions; they have no upsert key
+			jdbcDao.clearOverdrafts(overdrafts);
+			add(totals, jdbcDao.addOverdrafts(overdrafts));
+		}
+
+		// - verify -------------------
+		assertEquals(config.getFixtureAccounts(), totals.get("account").longValue());
+		assertEquals(LoadOperations.LOAD_BALANCE, jdbcDao.selectBalance(FIXTURE_ACCOUNT + (config.getFixtureAccounts() - 1)));
+	}
+
+	private static void add(Map<String, Long> totals, JdbcDao.BatchLoad load) {
+		totals.merge(load.getTable(), load.getRows(), Long::sum);
+	}
+}
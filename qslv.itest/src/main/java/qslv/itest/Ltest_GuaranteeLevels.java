@@ -0,0 +1,36 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Plain, idempotent and transactional producers compared. Not part of IntegrationSuiteTest;
+ * size the run with qslv.kafka-guarantee-messages.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Ltest_GuaranteeLevels {
+
+	@Autowired
+	GuaranteeLevelBenchmark guaranteeLevelBenchmark;
+
+	@Test
+	void testGuaranteeLevels() throws Exception {
+		// - execute ------------------
+		List<GuaranteeLevelBenchmark.Result> results = guaranteeLevelBenchmark.run();
+
+		// - verify -------------------
+		assertEquals(6, results.size());
+		for (GuaranteeLevelBenchmark.Result result : results) {
+			assertEquals(0, result.getErrors(), result.getLevel() + " " + result.getPhase());
+			assertEquals(result.getMessages(), result.getLatency().getCount(), result.getLevel() + " " + result.getPhase());
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Load runs against the deployed services. Not part of IntegrationSuiteTest; run individually and size
+ * the run through the qslv.load-* properties.
+ */
+@SpringBootTest(properties = "qslv.warmup-enabled=true")
+@EnableQuickSilver
+class Ltest_Load {
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	LoadOperations loadOperations;
+	@Autowired
+	LoadGenerator loadGenerator;
+	@Autowired
+	ConcurrencySweep concurrencySweep;
+	@Autowired
+	ServiceLatencyRecorder serviceLatencyRecorder;
+	@Autowired
+	RestHedger restHedger;
+	@Autowired
+	RestResilience restResilience;
+	@Autowired
+	EndpointTimer endpointTimer;
+	@Autowired
+	ServiceInstanceBalancer serviceInstanceBalancer;
+	@Autowired
+	WarmUp warmUp;
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PartitionSkewMonitor partitionSkewMonitor;
+	@Autowired
+	ReplyRouter replyRouter;
+	@Autowired
+	FulfillmentLatencyRecorder fulfillmentLatencyRecorder;
+	@Autowired
+	DeadLetterAnalyzer deadLetterAnalyzer;
+	@Autowired
+	ConsumerLagMonitor consumerLagMonitor;
+	@Autowired
+	List<ReplyBuffer<?>> replyBuffers;
+
+	@Test
+	void testOpenLoop() throws Exception {
+		// - setup --------------------
+		loadOperations.setupAccounts();
+
+		// - execute ------------------
+		warmUp.resetRecorders();
+		consumerLagMonitor.start();
+		LoadReport report;
+		try {
+			report = loadGenerator.run(config.getLoadOperation(), loadOperations.byName(config.getLoadOperation()));
+		} finally {
+			consumerLagMonitor.stop();
+		}
+		serviceLatencyRecorder.logStatistics();
+		restHedger.logStatistics();
+		restResilience.logStatistics();
+		endpointTimer.logStatistics();
+		serviceInstanceBalancer.logStatistics();
+		kafkaProducerDao.logStatistics();
+		partitionSkewMonitor.logStatistics();
+		replyRouter.logStatistics();
+		fulfillmentLatencyRecorder.logStatistics();
+		deadLetterAnalyzer.logStatistics();
+		replyBuffers.forEach(ReplyBuffer::logStatistics);
+
+		// - verify -------------------
+		assertTrue(report.getCompleted() > 0);
+		assertEquals(0, report.getErrors(), report.getErrorsByType().toString());
+	}
+
+	@Test
+	void testConcurrencySweep() throws Exception {
+		// - setup --------------------
+		loadOperations.setupAccounts();
+
+		// - execute ------------------
+		warmUp.resetRecorders();
+		consumerLagMonitor.start();
+		SweepReport report;
+		try {
+			report = concurrencySweep.run(config.getLoadOperation(), loadOperations.blockingByName(config.getLoadOperation()),
+					loadOperations.restUrls(config.getLoadOperation()));
+		} finally {
+			consumerLagMonitor.stop();
+		}
+		serviceLatencyRecorder.logStatistics();
+		restHedger.logStatistics();
+		restResilience.logStatistics();
+		endpointTimer.logStatistics();
+		serviceInstanceBalancer.logStatistics();
+		kafkaProducerDao.logStatistics();
+		partitionSkewMonitor.logStatistics();
+		replyRouter.logStatistics();
+		fulfillmentLatencyRecorder.logStatistics();
+		deadLetterAnalyzer.logStatistics();
+		replyBuffers.forEach(ReplyBuffer::logStatistics);
+
+		// - verify -------------------
+		assertFalse(report.getSteps().isEmpty());
+		for (SweepReport.Step step : report.getSteps()) {
+			assertEquals(0, step.getErrors());
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Hot-partition scenario: hotAccountKeyStrategy pushes kafkaHotKeyShare of the transaction fulfillment
+ * requests onto one key, and the skew report has to flag that key's partition. Not part of IntegrationSuiteTest.
+ * This context sends the requests to the transaction benchmark topic, where no fulfillment service posts them.
+ */
+@SpringBootTest(properties = { "qslv.kafka-key-strategy=hotAccountKeyStrategy",
+		"qslv.kafka-transaction-request-queue=${qslv.kafka-bench-transaction-topic}" })
+@EnableQuickSilver
+class Ltest_PartitionSkew {
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	LoadOperations loadOperations;
+	@Autowired
+	KafkaProducerDao kafkaProducerDao;
+	@Autowired
+	PartitionSkewMonitor partitionSkewMonitor;
+
+	@Test
+	void testHotPartition() throws Exception {
+		// - setup --------------------
+		partitionSkewMonitor.reset();
+
+		// - execute ------------------
+		List<CompletableFuture<?>> sent = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			sent.add(loadOperations.transactionFulfillment().start());
+		}
+		kafkaProducerDao.flush();
+		CompletableFuture.allOf(sent.toArray(new CompletableFuture<?>[0])).get();
+		partitionSkewMonitor.logStatistics();
+
+		// - verify -------------------
+		PartitionSkewMonitor.TopicSkew skew = partitionSkewMonitor.getTopics().get(config.getKafkaTransactionRequestQueue());
+		assertNotNull(skew);
+		assertEquals(1000, skew.getMessages());
+		if (skew.getPartitionCount() > 2) {
+			assertFalse(skew.getHotPartitions(config.getKafkaHotPartitionRatio()).isEmpty());
+		}
+	}
+}
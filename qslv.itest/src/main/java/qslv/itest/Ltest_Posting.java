@@ -0,0 +1,44 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Posting engine throughput against the qslv.posting-*-topic benchmark streams. Not part of IntegrationSuiteTest; size the run
+ * through the qslv.posting-* properties. The harness writes plain JSON records (see PostingHarness), so it needs a
+ * posting engine instance configured for JSON on the benchmark topics; every reply must echo its request.
+ */
+@SpringBootTest(properties = "qslv.posting-harness-enabled=true")
+@EnableQuickSilver
+class Ltest_Posting {
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	PostingHarness postingHarness;
+	@Autowired
+	WarmUp warmUp;
+	@Autowired
+	ReplyRouter replyRouter;
+
+	@Test
+	void testPostingThroughput() throws Exception {
+		// - setup --------------------
+		warmUp.resetRecorders();
+
+		// - execute ------------------
+		PostingHarness.Result result = postingHarness.run();
+		replyRouter.logStatistics();
+
+		// - verify -------------------
+		assertTrue(result.getReport().getCompleted() > 0);
+		assertEquals(0, result.getReport().getErrors(), result.getReport().getErrorsByType().toString());
+		assertEquals(result.getReport().getCompleted(), result.getWellFormedReplies());
+		assertTrue(result.getChangelogGrowth().get(config.getPostingTransactionLogTopic()) > 0);
+	}
+}
@@ -0,0 +1,36 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Shared fulfillment producer against one producer per message type. Not part of IntegrationSuiteTest;
+ * size the run with qslv.kafka-benchmark-messages.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Ltest_ProducerLayout {
+
+	@Autowired
+	ProducerLayoutBenchmark producerLayoutBenchmark;
+
+	@Test
+	void testProducerLayout() throws Exception {
+		// - execute ------------------
+		List<ProducerLayoutBenchmark.Result> results = producerLayoutBenchmark.run();
+
+		// - verify -------------------
+		assertEquals(2, results.size());
+		for (ProducerLayoutBenchmark.Result result : results) {
+			assertEquals(0, result.getErrors(), result.getLayout());
+			assertEquals(result.getMessages(), result.getAckLatency().getCount(), result.getLayout());
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package qslv.itest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import qslv.util.EnableQuickSilver;
+
+/*
+ * Producer settings matrix. Not part of IntegrationSuiteTest; choose the base profile with
+ * qslv.kafka-producer-profile and the matrix with the qslv.kafka-tuning-* properties.
+ */
+@SpringBootTest
+@EnableQuickSilver
+class Ltest_ProducerTuning {
+
+	@Autowired
+	ProducerTuningBenchmark producerTuningBenchmark;
+
+	@Test
+	void testProducerTuning() throws Exception {
+		// - execute ------------------
+		Path output = producerTuningBenchmark.run();
+
+		// - verify -------------------
+		List<String> rows = Files.readAllLines(output);
+		assertEquals(ProducerTuningBenchmark.CSV_HEADER, rows.get(0));
+		assertTrue(rows.size() > 1);
+	}
+}
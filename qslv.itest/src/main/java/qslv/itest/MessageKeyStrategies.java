@@ -0,0 +1,39 @@
+package qslv.itest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * Built-in key strategies.
+ * "accountKeyStrategy" keeps every request for an account in order on one partition.
+ * "requestKeyStrategy" spreads requests evenly, giving up per-account ordering.
+ * "hotAccountKeyStrategy" keys kafkaHotKeyShare of all requests with one key, the rest by account,
+ * to reproduce a hot partition without changing the payloads.
+ * A request without an account goes unkeyed and is spread by the partitioner.
+ */
+@Configuration
+public class MessageKeyStrategies {
+	public static final String HOT_KEY = "HOT_ACCOUNT";
+
+	@Autowired
+	ConfigProperties config;
+
+	@Bean
+	public MessageKeyStrategy accountKeyStrategy() {
+		return (accountNumber, requestUuid) -> accountNumber;
+	}
+
+	@Bean
+	public MessageKeyStrategy requestKeyStrategy() {
+		return (accountNumber, requestUuid) -> requestUuid == null ? null : requestUuid.toString();
+	}
+
+	@Bean
+	public MessageKeyStrategy hotAccountKeyStrategy() {
+		return (accountNumber, requestUuid) -> accountNumber != null
+				&& ThreadLocalRandom.current().nextDouble() < config.getKafkaHotKeyShare() ? HOT_KEY : accountNumber;
+	}
+}
@@ -0,0 +1,11 @@
+package qslv.itest;
+
+import java.util.UUID;
+
+/*
+ * Chooses the Kafka key, and so the partition, of a fulfillment request. Implementations are beans;
+ * qslv.kafka-key-strategy names the one in use. accountNumber and requestUuid are null for malformed requests.
+ */
+public interface MessageKeyStrategy {
+	String key(String accountNumber, UUID requestUuid);
+}
@@ -0,0 +1,31 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Keys fulfillment requests with the MessageKeyStrategy bean named by qslv.kafka-key-strategy.
+ */
+@Component
+public class MessageKeys {
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private Map<String, MessageKeyStrategy> strategies;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public String key(String accountNumber, UUID requestUuid) {
+		MessageKeyStrategy strategy = strategies.get(config.getKafkaKeyStrategy());
+		if (strategy == null) {
+			throw new IllegalArgumentException(String.format("Unknown key strategy %s.", config.getKafkaKeyStrategy()));
+		}
+		return strategy.key(accountNumber, requestUuid);
+	}
+}
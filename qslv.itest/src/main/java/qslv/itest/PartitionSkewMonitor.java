@@ -0,0 +1,140 @@
+package qslv.itest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.transaction.request.TransactionRequest;
+
+/*
+ * Messages and bytes acknowledged per topic partition. A partition is hot when it carries more than
+ * kafkaHotPartitionRatio times the mean of the topic's partitions, counting partitions that got nothing.
+ */
+@Component
+public class PartitionSkewMonitor implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(PartitionSkewMonitor.class);
+
+	@Autowired
+	private ConfigProperties config;
+	// any template on the shared, non-transactional fulfillment producer can look up any topic
+	@Autowired
+	@Qualifier("transactionFulfillmentKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<TransactionRequest>> metadataKafkaTemplate;
+
+	private final Map<String, Map<Integer, PartitionCount>> topics = new ConcurrentHashMap<>();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class PartitionCount {
+		private final AtomicLong messages = new AtomicLong();
+		private final AtomicLong bytes = new AtomicLong();
+
+		public long getMessages() {
+			return messages.get();
+		}
+		public long getBytes() {
+			return bytes.get();
+		}
+	}
+
+	public static class TopicSkew {
+		private final String topic;
+		private final int partitionCount;
+		private final Map<Integer, PartitionCount> partitions;
+
+		TopicSkew(String topic, int partitionCount, Map<Integer, PartitionCount> partitions) {
+			this.topic = topic;
+			this.partitionCount = partitionCount;
+			this.partitions = partitions;
+		}
+		public String getTopic() {
+			return topic;
+		}
+		public int getPartitionCount() {
+			return partitionCount;
+		}
+		public Map<Integer, PartitionCount> getPartitions() {
+			return partitions;
+		}
+		public long getMessages() {
+			return partitions.values().stream().mapToLong(PartitionCount::getMessages).sum();
+		}
+		public double getMeanMessages() {
+			return partitionCount == 0 ? 0.0 : (double) getMessages() / partitionCount;
+		}
+		// busiest partition over the mean; 1.0 is perfectly even
+		public double getSkewRatio() {
+			double mean = getMeanMessages();
+			long max = partitions.values().stream().mapToLong(PartitionCount::getMessages).max().orElse(0L);
+			return mean == 0.0 ? 0.0 : max / mean;
+		}
+		public List<Integer> getHotPartitions(double ratio) {
+			double mean = getMeanMessages();
+			List<Integer> hot = new ArrayList<>();
+			partitions.forEach((partition, count) -> {
+				if (count.getMessages() > mean * ratio) {
+					hot.add(partition);
+				}
+			});
+			return hot;
+		}
+	}
+
+	public void record(RecordMetadata metadata) {
+		if (metadata == null) {
+			return;
+		}
+		PartitionCount count = topics.computeIfAbsent(metadata.topic(), k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(metadata.partition(), k -> new PartitionCount());
+		count.messages.incrementAndGet();
+		count.bytes.addAndGet(Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize()));
+	}
+
+	public Map<String, TopicSkew> getTopics() {
+		Map<String, TopicSkew> skew = new TreeMap<>();
+		topics.forEach((topic, partitions) -> skew.put(topic,
+				new TopicSkew(topic, Math.max(partitions.size(), partitionCount(topic)), new TreeMap<>(partitions))));
+		return skew;
+	}
+
+	private int partitionCount(String topic) {
+		try {
+			return metadataKafkaTemplate.partitionsFor(topic).size();
+		} catch (Exception ex) {
+			log.debug("partitionCount {} {}", topic, ex.getLocalizedMessage());
+			return 0;
+		}
+	}
+
+	@Override
+	public void reset() {
+		topics.clear();
+	}
+
+	public void logStatistics() {
+		getTopics().forEach((topic, skew) -> {
+			skew.getPartitions().forEach((partition, count) -> log.info("{}-{} messages={} bytes={}", topic, partition,
+					count.getMessages(), count.getBytes()));
+			List<Integer> hot = skew.getHotPartitions(config.getKafkaHotPartitionRatio());
+			log.info("{} partitions={} used={} messages={} skewRatio={}", topic, skew.getPartitionCount(),
+					skew.getPartitions().size(), skew.getMessages(), String.format("%.2f", skew.getSkewRatio()));
+			if (!hot.isEmpty()) {
+				log.warn("{} hot partitions {}", topic, hot);
+			}
+		});
+	}
+}
@@ -0,0 +1,197 @@
+package qslv.itest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Drives the streams-based posting engine. Seeds the account topic with postingAccounts accounts and the overdraft
+ * topic with instructions for postingOverdraftShare of them, streams posting requests at postingRate for
+ * postingDurationSeconds through the open-loop LoadGenerator, and completes each call when PostingResponseListener
+ * routes its response. Reports request-to-response latency and how many records the enhanced request,
+ * transaction log and balance log topics gained per posting. The posting engine's own types are not on this
+ * project's classpath, so records are plain JSON keyed by account number and the harness needs an engine instance
+ * configured for JSON records on the qslv.posting-*-topic benchmark topics. A reply that does not echo its
+ * request's requestUuid and accountNumber fails the posting, so an engine reading another format shows up as
+ * errors instead of as throughput.
+ */
+@Component
+public class PostingHarness {
+	private static final Logger log = LoggerFactory.getLogger(PostingHarness.class);
+	public static final String POSTING_ACCOUNT = "POSTING_ACCOUNT_";
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private LoadGenerator loadGenerator;
+	@Autowired
+	private ReplyRouter replyRouter;
+	@Autowired
+	private KafkaTemplate<String, String> postingKafkaTemplate;
+	@Resource(name = "listenerConfig")
+	private Map<String, Object> listenerConfig;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong wellFormedReplies = new AtomicLong();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class Result {
+		private final LoadReport report;
+		private final Map<String, Long> changelogGrowth;
+		private final long wellFormedReplies;
+
+		Result(LoadReport report, Map<String, Long> changelogGrowth, long wellFormedReplies) {
+			this.report = report;
+			this.changelogGrowth = changelogGrowth;
+			this.wellFormedReplies = wellFormedReplies;
+		}
+		public LoadReport getReport() {
+			return report;
+		}
+		// replies that echoed their request's requestUuid and accountNumber
+		public long getWellFormedReplies() {
+			return wellFormedReplies;
+		}
+		// records each topic gained during the run
+		public Map<String, Long> getChangelogGrowth() {
+			return changelogGrowth;
+		}
+		public String summary() {
+			StringBuilder growth = new StringBuilder();
+			changelogGrowth.forEach((topic, records) -> growth.append(String.format(" %s=+%d (%.2f/posting)", topic, records,
+					(double) records / Math.max(1L, report.getCompleted()))));
+			return report.summary() + " wellFormedReplies=" + wellFormedReplies + growth;
+		}
+	}
+
+	public Result run() throws Exception {
+		log.info("run ENTRY rate {}/s for {}s", config.getPostingRate(), config.getPostingDurationSeconds());
+		seed();
+		wellFormedReplies.set(0);
+		List<String> changelogs = Arrays.asList(config.getPostingEnhancedRequestTopic(), config.getPostingTransactionLogTopic(),
+				config.getPostingBalanceLogTopic());
+		Map<String, Long> before = endOffsets(changelogs);
+
+		LoadReport report = loadGenerator.run("posting", posting(), config.getPostingRate(), config.getPostingRate(), 0L,
+				TimeUnit.SECONDS.toNanos(config.getPostingDurationSeconds()));
+
+		Map<String, Long> after = endOffsets(changelogs);
+		Map<String, Long> growth = new LinkedHashMap<>();
+		after.forEach((topic, end) -> growth.put(topic, end - before.getOrDefault(topic, 0L)));
+		Result result = new Result(report, growth, wellFormedReplies.get());
+		log.info("run EXIT {}", result.summary());
+		return result;
+	}
+
+	public void seed() throws Exception {
+		int overdrafts = (int) Math.round(config.getPostingAccounts() * config.getPostingOverdraftShare());
+		for (int i = 0; i < config.getPostingAccounts(); i++) {
+			String accountNumber = POSTING_ACCOUNT + i;
+			Map<String, Object> account = new LinkedHashMap<>();
+			account.put("accountNumber", accountNumber);
+			account.put("accountLifeCycleStatus", LoadOperations.VALID_STATUS);
+			postingKafkaTemplate.send(config.getPostingAccountTopic(), accountNumber, json(account));
+			if (i < overdrafts) {
+				Map<String, Object> instruction = new LinkedHashMap<>();
+				instruction.put("accountNumber", accountNumber);
+				instruction.put("overdraftAccountNumber", POSTING_ACCOUNT + ((i + 1) % config.getPostingAccounts()));
+				instruction.put("instructionLifecycleStatus", LoadOperations.VALID_STATUS);
+				postingKafkaTemplate.send(config.getPostingOverdraftTopic(), accountNumber, json(instruction));
+			}
+		}
+		postingKafkaTemplate.flush();
+		log.info("seed {} accounts, {} overdraft instructions", config.getPostingAccounts(), overdrafts);
+	}
+
+	public LoadOperation posting() {
+		return () -> {
+			long next = sequence.getAndIncrement();
+			String accountNumber = POSTING_ACCOUNT + (next % config.getPostingAccounts());
+			UUID requestUuid = UUID.randomUUID();
+			Map<String, Object> request = new LinkedHashMap<>();
+			request.put("requestUuid", requestUuid.toString());
+			request.put("accountNumber", accountNumber);
+			// alternate debits and credits so balances stay near their seed
+			request.put("transactionAmount", next % 2 == 0 ? -100L : 100L);
+			request.put("transactionMetaDataJson", LoadOperations.JSON_DATA);
+
+			CompletableFuture<String> reply = replyRouter.expect(config.getPostingResponseTopic(), requestUuid, null);
+			try {
+				postingKafkaTemplate.send(config.getPostingRequestTopic(), accountNumber, json(request)).completable()
+						.whenComplete((result, ex) -> {
+							if (ex != null) {
+								replyRouter.cancel(config.getPostingResponseTopic(), requestUuid, null, ex);
+							}
+						});
+			} catch (RuntimeException ex) {
+				replyRouter.cancel(config.getPostingResponseTopic(), requestUuid, null, ex);
+			}
+			return reply.thenApply(message -> checkReply(message, requestUuid, accountNumber));
+		};
+	}
+
+	private String checkReply(String message, UUID requestUuid, String accountNumber) {
+		JsonNode reply;
+		try {
+			reply = mapper.readTree(message);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(String.format("Posting reply for %s is not JSON.", requestUuid), ex);
+		}
+		JsonNode replyUuid = reply.findValue("requestUuid");
+		JsonNode replyAccount = reply.findValue("accountNumber");
+		if (replyUuid == null || !requestUuid.toString().equals(replyUuid.asText())
+				|| replyAccount == null || !accountNumber.equals(replyAccount.asText())) {
+			throw new IllegalStateException(String.format("Posting reply for %s does not echo requestUuid and accountNumber %s.",
+					requestUuid, accountNumber));
+		}
+		wellFormedReplies.incrementAndGet();
+		return message;
+	}
+
+	private Map<String, Long> endOffsets(List<String> topics) throws Exception {
+		Map<String, Long> ends = new LinkedHashMap<>();
+		try (AdminClient admin = AdminClient.create(listenerConfig)) {
+			Map<TopicPartition, OffsetSpec> latest = new LinkedHashMap<>();
+			for (TopicDescription description : admin.describeTopics(topics).all().get().values()) {
+				description.partitions().forEach(partition ->
+						latest.put(new TopicPartition(description.name(), partition.partition()), OffsetSpec.latest()));
+			}
+			topics.forEach(topic -> ends.put(topic, 0L));
+			admin.listOffsets(latest).all().get().forEach((partition, offset) -> ends.merge(partition.topic(), offset.offset(), Long::sum));
+		}
+		return ends;
+	}
+
+	private String json(Map<String, Object> record) {
+		try {
+			return mapper.writeValueAsString(record);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
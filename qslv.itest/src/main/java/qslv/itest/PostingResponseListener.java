@@ -0,0 +1,47 @@
+package qslv.itest;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Hands qslv.posting-response-topic replies to the ReplyRouter by their requestUuid. Only started for the posting harness.
+ */
+@Component
+public class PostingResponseListener {
+	private static final Logger log = LoggerFactory.getLogger(PostingResponseListener.class);
+
+	@Autowired
+	ConfigProperties config;
+	@Autowired
+	ReplyRouter replyRouter;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@KafkaListener(containerFactory = "postingListenerContainerFactory", topics = { "${qslv.posting-response-topic}" },
+			groupId = "foo", autoStartup = "${qslv.posting-harness-enabled:false}")
+	public void listen(@Payload String message) {
+		log.debug("onMessage ENTRY");
+		UUID requestUuid = null;
+		try {
+			JsonNode requestUuidNode = mapper.readTree(message).findValue("requestUuid");
+			if (requestUuidNode != null && requestUuidNode.isTextual()) {
+				requestUuid = UUID.fromString(requestUuidNode.asText());
+			}
+		} catch (Exception ex) {
+			log.debug("listen {}", ex.getLocalizedMessage());
+		}
+		if (requestUuid != null) {
+			replyRouter.route(config.getPostingResponseTopic(), requestUuid, null, message);
+		}
+		log.debug("onMessage EXIT");
+	}
+}
@@ -0,0 +1,183 @@
+package qslv.itest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Compares the shared fulfillment producer against the previous layout of one producer per message type.
+ * Both layouts send the same kafkaBenchmarkMessages, round robin over the four fulfillment message types, to the
+ * qslv.kafka-bench-*-topic benchmark topics rather than the live request topics, with
+ * producers built from the same producer properties. Reports throughput, send-to-ack latency, batching,
+ * reserved buffer memory, I/O threads and retained heap.
+ */
+@Component
+public class ProducerLayoutBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(ProducerLayoutBenchmark.class);
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private KafkaProducerConfig kafkaProducerConfig;
+	@Autowired
+	private LoadOperations loadOperations;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class Result {
+		private final String layout;
+		private final int producers;
+		private final long messages;
+		private final long errors;
+		private final long elapsedNanos;
+		private final long bufferTotalBytes;
+		private final long ioThreads;
+		private final long retainedHeapBytes;
+		private final double batchSizeAvg;
+		private final double recordsPerRequestAvg;
+		private final LatencyHistogram ackLatency;
+
+		Result(String layout, int producers, long messages, long errors, long elapsedNanos, long bufferTotalBytes,
+				long ioThreads, long retainedHeapBytes, double batchSizeAvg, double recordsPerRequestAvg, LatencyHistogram ackLatency) {
+			this.layout = layout;
+			this.producers = producers;
+			this.messages = messages;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+			this.bufferTotalBytes = bufferTotalBytes;
+			this.ioThreads = ioThreads;
+			this.retainedHeapBytes = retainedHeapBytes;
+			this.batchSizeAvg = batchSizeAvg;
+			this.recordsPerRequestAvg = recordsPerRequestAvg;
+			this.ackLatency = ackLatency;
+		}
+		public String getLayout() {
+			return layout;
+		}
+		public int getProducers() {
+			return producers;
+		}
+		public long getMessages() {
+			return messages;
+		}
+		public long getErrors() {
+			return errors;
+		}
+		public double getThroughput() {
+			return messages * 1_000_000_000.0 / Math.max(1L, elapsedNanos);
+		}
+		public long getBufferTotalBytes() {
+			return bufferTotalBytes;
+		}
+		public long getIoThreads() {
+			return ioThreads;
+		}
+		public long getRetainedHeapBytes() {
+			return retainedHeapBytes;
+		}
+		public double getBatchSizeAvg() {
+			return batchSizeAvg;
+		}
+		public double getRecordsPerRequestAvg() {
+			return recordsPerRequestAvg;
+		}
+		public LatencyHistogram getAckLatency() {
+			return ackLatency;
+		}
+		public String summary() {
+			return String.format("%s producers=%d messages=%d errors=%d throughput=%.1f/s bufferTotal=%dKB ioThreads=%d "
+					+ "retainedHeap=%dKB batchSizeAvg=%.0fB recordsPerRequestAvg=%.1f ack %s",
+					layout, producers, messages, errors, getThroughput(), bufferTotalBytes / 1024, ioThreads,
+					retainedHeapBytes / 1024, batchSizeAvg, recordsPerRequestAvg, ackLatency.summary());
+		}
+	}
+
+	public List<Result> run() throws Exception {
+		List<Result> results = new ArrayList<>();
+		results.add(runLayout("separate", 4));
+		results.add(runLayout("shared", 1));
+		results.forEach(result -> log.info("run {}", result.summary()));
+		return results;
+	}
+
+	private Result runLayout(String layout, int producerCount) throws Exception {
+		List<String> topics = new ArrayList<>();
+		topics.add(config.getKafkaTransferRequestQueue());
+		topics.add(config.getKafkaCancelRequestQueue());
+		topics.add(config.getKafkaCommitRequestQueue());
+		topics.add(config.getKafkaTransactionRequestQueue());
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long threadsBefore = ioThreads();
+		System.gc();
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+		List<KafkaProducer<String, Object>> producers = new ArrayList<>();
+		for (int i = 0; i < producerCount; i++) {
+			Map<String, Object> properties = new HashMap<>(kafkaProducerConfig.producerConfig());
+			properties.put("client.id", String.format("qslv.itest.layout-%s-%d", layout, i));
+			producers.add(new KafkaProducer<>(properties, new StringSerializer(), kafkaProducerConfig.fulfillmentSerializer()));
+		}
+
+		LatencyHistogram ackLatency = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		long startNanos = System.nanoTime();
+		try {
+			for (long i = 0; i < config.getKafkaBenchmarkMessages(); i++) {
+				int type = (int) (i % topics.size());
+				KafkaProducer<String, Object> producer = producers.get(type % producerCount);
+				long sendStart = System.nanoTime();
+				producer.send(loadOperations.benchmarkRecord(topics.get(type)), (metadata, ex) -> {
+					if (ex == null) {
+						ackLatency.record(System.nanoTime() - sendStart);
+					} else {
+						errors.incrementAndGet();
+					}
+				});
+			}
+			producers.forEach(KafkaProducer::flush);
+			long elapsedNanos = System.nanoTime() - startNanos;
+
+			System.gc();
+			long retainedHeap = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+			return new Result(layout, producerCount, config.getKafkaBenchmarkMessages(), errors.get(), elapsedNanos,
+					(long) sumMetric(producers, "buffer-total-bytes"), ioThreads() - threadsBefore, retainedHeap,
+					sumMetric(producers, "batch-size-avg") / producerCount,
+					sumMetric(producers, "records-per-request-avg") / producerCount, ackLatency);
+		} finally {
+			producers.forEach(producer -> producer.close(Duration.ofMinutes(1)));
+		}
+	}
+
+	static double sumMetric(List<KafkaProducer<String, Object>> producers, String name) {
+		double sum = 0.0;
+		for (KafkaProducer<String, Object> producer : producers) {
+			sum += producer.metrics().entrySet().stream()
+					.filter(metric -> metric.getKey().group().equals("producer-metrics") && metric.getKey().name().equals(name))
+					.mapToDouble(metric -> ((Number) metric.getValue().metricValue()).doubleValue())
+					.filter(value -> !Double.isNaN(value))
+					.sum();
+		}
+		return sum;
+	}
+
+	private static long ioThreads() {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().startsWith("kafka-producer-network-thread"))
+				.count();
+	}
+}
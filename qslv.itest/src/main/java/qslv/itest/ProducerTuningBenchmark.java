@@ -0,0 +1,132 @@
+package qslv.itest;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Sweeps linger.ms, batch.size, compression.type and max.in.flight.requests.per.connection (the
+ * qslv.kafka-tuning-* lists) for each fulfillment message type. Every cell sends kafkaTuningMessages of that type
+ * to its qslv.kafka-bench-*-topic, never the live request topic, through a fresh producer built from the selected
+ * profile plus the cell's settings, and is written as one CSV row to kafkaTuningOutput: messages/sec and
+ * send-to-ack percentiles in ms.
+ */
+@Component
+public class ProducerTuningBenchmark {
+	private static final Logger log = LoggerFactory.getLogger(ProducerTuningBenchmark.class);
+	public static final String CSV_HEADER = "topic,linger_ms,batch_size,compression_type,max_in_flight,messages,errors,"
+			+ "messages_per_sec,ack_p50_ms,ack_p99_ms,ack_p999_ms,ack_max_ms,batch_size_avg,records_per_request_avg";
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private KafkaProducerConfig kafkaProducerConfig;
+	@Autowired
+	private LoadOperations loadOperations;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public Path run() throws Exception {
+		List<String> topics = Arrays.asList(config.getKafkaTransferRequestQueue(), config.getKafkaCancelRequestQueue(),
+				config.getKafkaCommitRequestQueue(), config.getKafkaTransactionRequestQueue());
+		Path output = Paths.get(config.getKafkaTuningOutput());
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		log.info("run ENTRY profile {} -> {}", config.getKafkaProducerProfile(), output);
+
+		try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+			csv.println(CSV_HEADER);
+			for (String topic : topics) {
+				for (String lingerMs : list(config.getKafkaTuningLingerMs())) {
+					for (String batchSize : list(config.getKafkaTuningBatchSizes())) {
+						for (String compressionType : list(config.getKafkaTuningCompressionTypes())) {
+							for (String maxInFlight : list(config.getKafkaTuningMaxInFlight())) {
+								String row = runCell(topic, lingerMs, batchSize, compressionType, maxInFlight);
+								log.info("run {}", row);
+								csv.println(row);
+								csv.flush();
+							}
+						}
+					}
+				}
+			}
+		}
+
+		log.info("run EXIT");
+		return output;
+	}
+
+	private String runCell(String topic, String lingerMs, String batchSize, String compressionType, String maxInFlight) throws Exception {
+		Map<String, Object> properties = new HashMap<>(kafkaProducerConfig.producerConfig());
+		properties.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+		properties.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+		properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+		properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+		properties.put(ProducerConfig.CLIENT_ID_CONFIG, "qslv.itest.tuning");
+
+		LatencyHistogram ackLatency = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		long elapsedNanos;
+		double batchSizeAvg;
+		double recordsPerRequestAvg;
+		try (KafkaProducer<String, Object> producer = new KafkaProducer<>(properties, new StringSerializer(), kafkaProducerConfig.fulfillmentSerializer())) {
+			// the first send pays for metadata and connections; keep it out of the cell
+			producer.send(loadOperations.benchmarkRecord(topic)).get();
+
+			long startNanos = System.nanoTime();
+			for (int i = 0; i < config.getKafkaTuningMessages(); i++) {
+				long sendStart = System.nanoTime();
+				producer.send(loadOperations.benchmarkRecord(topic), (metadata, ex) -> {
+					if (ex == null) {
+						ackLatency.record(System.nanoTime() - sendStart);
+					} else {
+						errors.incrementAndGet();
+					}
+				});
+			}
+			producer.flush();
+			elapsedNanos = System.nanoTime() - startNanos;
+
+			List<KafkaProducer<String, Object>> producers = new ArrayList<>();
+			producers.add(producer);
+			batchSizeAvg = ProducerLayoutBenchmark.sumMetric(producers, "batch-size-avg");
+			recordsPerRequestAvg = ProducerLayoutBenchmark.sumMetric(producers, "records-per-request-avg");
+		}
+
+		double messagesPerSec = config.getKafkaTuningMessages() * 1e9 / Math.max(1L, elapsedNanos);
+		return String.format(Locale.ROOT, "%s,%s,%s,%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.0f,%.1f", loadOperations.benchmarkTopic(topic), lingerMs, batchSize,
+				compressionType, maxInFlight, config.getKafkaTuningMessages(), errors.get(), messagesPerSec,
+				millis(ackLatency.valueAtPercentile(50.0)), millis(ackLatency.valueAtPercentile(99.0)),
+				millis(ackLatency.valueAtPercentile(99.9)), millis(ackLatency.getMaxNanos()), batchSizeAvg, recordsPerRequestAvg);
+	}
+
+	private static List<String> list(String values) {
+		return Arrays.stream(values.split(",")).map(String::trim).filter(value -> !value.isEmpty()).collect(Collectors.toList());
+	}
+
+	private static double millis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
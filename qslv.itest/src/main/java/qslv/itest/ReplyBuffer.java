@@ -0,0 +1,361 @@
+package qslv.itest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * Bounded hand-off from a Kafka listener thread to the test reading its messages. offer() never blocks: the ring
+ * is a lock-free multi-producer multi-consumer array queue (capacity rounded up to a power of two), and when it is
+ * full the overflow policy decides: drop-newest rejects the message, drop-oldest evicts the head to make room,
+ * spill appends it as JSON to a file that take() reads back once the ring is empty. Every dropped or spilled
+ * message is logged at warn. A reader finding the buffer empty parks until offer() unparks it. Counts overflows
+ * and the offer-to-take hand-off latency.
+ */
+public class ReplyBuffer<T> implements Closeable, Resettable {
+	private static final Logger log = LoggerFactory.getLogger(ReplyBuffer.class);
+	public static final String DROP_NEWEST = "drop-newest";
+	public static final String DROP_OLDEST = "drop-oldest";
+	public static final String SPILL = "spill";
+
+	private final String name;
+	private final String policy;
+	private final int mask;
+	private final AtomicReferenceArray<Entry<T>> slots;
+	private final AtomicLongArray sequences;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+
+	private final Spill<T> spill;
+	private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong offered = new AtomicLong();
+	private final AtomicLong droppedNewest = new AtomicLong();
+	private final AtomicLong droppedOldest = new AtomicLong();
+	private final AtomicLong spilled = new AtomicLong();
+	private final LatencyHistogram handoff = new LatencyHistogram();
+
+	private static class Entry<T> {
+		private final T value;
+		private final long offeredNanos;
+
+		Entry(T value, long offeredNanos) {
+			this.value = value;
+			this.offeredNanos = offeredNanos;
+		}
+	}
+
+	public ReplyBuffer(String name, int capacity, String policy, Path spillFile, ObjectMapper mapper, JavaType type) {
+		if (!DROP_NEWEST.equals(policy) && !DROP_OLDEST.equals(policy) && !SPILL.equals(policy)) {
+			throw new IllegalArgumentException(String.format("Unknown reply buffer policy %s.", policy));
+		}
+		this.name = name;
+		this.policy = policy;
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		this.mask = size - 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+		this.spill = SPILL.equals(policy) ? new Spill<>(spillFile, mapper, type) : null;
+	}
+
+	public boolean offer(T value) {
+		offered.incrementAndGet();
+		Entry<T> entry = new Entry<>(value, System.nanoTime());
+		// once anything is spilled, later messages queue behind it in the file
+		if ((spill == null || spill.isEmpty()) && ringOffer(entry)) {
+			signal();
+			return true;
+		}
+		if (DROP_NEWEST.equals(policy)) {
+			overflowed(droppedNewest, "dropped newest");
+			return false;
+		}
+		if (DROP_OLDEST.equals(policy)) {
+			while (!ringOffer(entry)) {
+				if (ringPoll() != null) {
+					overflowed(droppedOldest, "dropped oldest");
+				}
+			}
+			signal();
+			return true;
+		}
+		spill.append(entry);
+		overflowed(spilled, "spilled");
+		signal();
+		return true;
+	}
+
+	public T poll() {
+		Entry<T> entry = ringPoll();
+		if (entry == null && spill != null && !spill.isEmpty()) {
+			entry = spill.next();
+		}
+		if (entry == null) {
+			return null;
+		}
+		handoff.record(System.nanoTime() - entry.offeredNanos);
+		return entry.value;
+	}
+
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		T value;
+		while ((value = poll()) == null) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return null;
+			}
+			value = await(remaining);
+			if (value != null) {
+				return value;
+			}
+		}
+		return value;
+	}
+
+	public T take() throws InterruptedException {
+		T value;
+		while ((value = poll()) == null) {
+			value = await(0L);
+			if (value != null) {
+				return value;
+			}
+		}
+		return value;
+	}
+
+	// register before the second poll so an offer() landing in between still unparks us; 0 parks until unparked
+	private T await(long nanos) throws InterruptedException {
+		Thread current = Thread.currentThread();
+		waiters.add(current);
+		try {
+			T value = poll();
+			if (value != null) {
+				return value;
+			}
+			if (nanos > 0) {
+				LockSupport.parkNanos(this, nanos);
+			} else {
+				LockSupport.park(this);
+			}
+		} finally {
+			waiters.remove(current);
+		}
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		return null;
+	}
+
+	private void signal() {
+		for (Thread waiter : waiters) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	public void clear() {
+		while (ringPoll() != null) {
+			// discard
+		}
+		if (spill != null) {
+			spill.clear();
+		}
+	}
+
+	public int size() {
+		return (int) Math.max(0L, tail.get() - head.get()) + (spill == null ? 0 : spill.size());
+	}
+
+	// Vyukov bounded queue: a slot's sequence says whose turn it is, producer at pos or consumer at pos + 1
+	private boolean ringOffer(Entry<T> entry) {
+		long pos = tail.get();
+		while (true) {
+			int index = (int) (pos & mask);
+			long turn = sequences.get(index) - pos;
+			if (turn == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					slots.set(index, entry);
+					sequences.set(index, pos + 1);
+					return true;
+				}
+				pos = tail.get();
+			} else if (turn < 0) {
+				return false;
+			} else {
+				pos = tail.get();
+			}
+		}
+	}
+
+	private Entry<T> ringPoll() {
+		long pos = head.get();
+		while (true) {
+			int index = (int) (pos & mask);
+			long turn = sequences.get(index) - (pos + 1);
+			if (turn == 0) {
+				if (head.compareAndSet(pos, pos + 1)) {
+					Entry<T> entry = slots.get(index);
+					slots.set(index, null);
+					sequences.set(index, pos + mask + 1);
+					return entry;
+				}
+				pos = head.get();
+			} else if (turn < 0) {
+				return null;
+			} else {
+				pos = head.get();
+			}
+		}
+	}
+
+	private void overflowed(AtomicLong counter, String action) {
+		log.warn("{} full, reply {} ({} so far)", name, action, counter.incrementAndGet());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getOffered() {
+		return offered.get();
+	}
+
+	public long getDroppedNewest() {
+		return droppedNewest.get();
+	}
+
+	public long getDroppedOldest() {
+		return droppedOldest.get();
+	}
+
+	public long getSpilled() {
+		return spilled.get();
+	}
+
+	public LatencyHistogram getHandoff() {
+		return handoff;
+	}
+
+	@Override
+	public void reset() {
+		offered.set(0);
+		droppedNewest.set(0);
+		droppedOldest.set(0);
+		spilled.set(0);
+		handoff.reset();
+	}
+
+	public void logStatistics() {
+		log.info("{} offered={} droppedNewest={} droppedOldest={} spilled={} size={} handoff {}", name, getOffered(),
+				getDroppedNewest(), getDroppedOldest(), getSpilled(), size(), handoff.summary());
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (spill != null) {
+			spill.close();
+		}
+	}
+
+	/*
+	 * File-backed FIFO behind the ring, one "offeredNanos<TAB>json" line per message. Only the overflow path gets
+	 * here, so a lock is fine.
+	 */
+	private static class Spill<T> {
+		private final Path file;
+		private final ObjectMapper mapper;
+		private final JavaType type;
+		private BufferedWriter writer;
+		private BufferedReader reader;
+		private volatile int size;
+
+		Spill(Path file, ObjectMapper mapper, JavaType type) {
+			this.file = file;
+			this.mapper = mapper;
+			this.type = type;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int size() {
+			return size;
+		}
+
+		synchronized void append(Entry<T> entry) {
+			try {
+				if (writer == null) {
+					if (file.getParent() != null) {
+						Files.createDirectories(file.getParent());
+					}
+					writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+					reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+				}
+				writer.write(entry.offeredNanos + "\t" + mapper.writeValueAsString(entry.value));
+				writer.newLine();
+				writer.flush();
+				size++;
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		synchronized Entry<T> next() {
+			if (size == 0) {
+				return null;
+			}
+			try {
+				String line = reader.readLine();
+				size--;
+				int tab = line.indexOf('\t');
+				T value = mapper.readValue(line.substring(tab + 1), type);
+				if (size == 0) {
+					close();
+				}
+				return new Entry<>(value, Long.parseLong(line.substring(0, tab)));
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		synchronized void clear() {
+			try {
+				close();
+			} catch (IOException ex) {
+				log.warn("clear {} {}", file, ex.getLocalizedMessage());
+			}
+		}
+
+		synchronized void close() throws IOException {
+			size = 0;
+			if (writer != null) {
+				writer.close();
+				reader.close();
+				writer = null;
+				reader = null;
+			}
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Matches fulfillment replies to the requests waiting for them. A caller registers with expect() before
+ * producing its request and gets a future; the reply listener hands every reply to route(), which completes
+ * the future registered for the reply topic and the request's requestUuid, or for its correlationId when
+ * the request had no requestUuid. Futures nobody answers fail with a TimeoutException after kafkaReplyTimeout ms.
+ * A reply no one expects is left to the caller of route(), so the exchange queues keep working for the itests.
+ */
+@Component
+public class ReplyRouter implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(ReplyRouter.class);
+
+	@Autowired
+	private ConfigProperties config;
+
+	private final Map<String, Pending<?>> pending = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "reply-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicLong routed = new AtomicLong();
+	private final AtomicLong unmatched = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	private static class Pending<R> {
+		private final CompletableFuture<R> future = new CompletableFuture<>();
+		private volatile ScheduledFuture<?> timeout;
+
+		// a reply can beat the timeout's scheduling; the timeout then finds nothing to remove
+		void cancelTimeout() {
+			ScheduledFuture<?> scheduled = timeout;
+			if (scheduled != null) {
+				scheduled.cancel(false);
+			}
+		}
+	}
+
+	public <R> CompletableFuture<R> expect(String replyTopic, UUID requestUuid, String correlationId) {
+		String key = key(replyTopic, requestUuid, correlationId);
+		Pending<R> entry = new Pending<>();
+		if (pending.putIfAbsent(key, entry) != null) {
+			throw new IllegalStateException(String.format("A reply for %s is already expected.", key));
+		}
+		entry.timeout = timer.schedule(() -> {
+			if (pending.remove(key, entry)) {
+				timedOut.incrementAndGet();
+				entry.future.completeExceptionally(new TimeoutException(String.format("No reply for %s in %dms.", key, config.getKafkaReplyTimeout())));
+			}
+		}, config.getKafkaReplyTimeout(), TimeUnit.MILLISECONDS);
+		return entry.future;
+	}
+
+	/*
+	 * Withdraws an expectation whose request was never sent.
+	 */
+	public void cancel(String replyTopic, UUID requestUuid, String correlationId, Throwable cause) {
+		Pending<?> entry = pending.remove(key(replyTopic, requestUuid, correlationId));
+		if (entry != null) {
+			entry.cancelTimeout();
+			entry.future.completeExceptionally(cause);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public <R> boolean route(String replyTopic, UUID requestUuid, String correlationId, R reply) {
+		Pending<R> entry = (Pending<R>) pending.remove(key(replyTopic, requestUuid, correlationId));
+		if (entry == null) {
+			unmatched.incrementAndGet();
+			return false;
+		}
+		entry.cancelTimeout();
+		routed.incrementAndGet();
+		entry.future.complete(reply);
+		return true;
+	}
+
+	private static String key(String replyTopic, UUID requestUuid, String correlationId) {
+		return requestUuid != null ? replyTopic + "/" + requestUuid : replyTopic + "/correlation/" + correlationId;
+	}
+
+	public int getPending() {
+		return pending.size();
+	}
+
+	public long getRouted() {
+		return routed.get();
+	}
+
+	public long getUnmatched() {
+		return unmatched.get();
+	}
+
+	public long getTimedOut() {
+		return timedOut.get();
+	}
+
+	@Override
+	public void reset() {
+		routed.set(0);
+		unmatched.set(0);
+		timedOut.set(0);
+	}
+
+	public void logStatistics() {
+		log.info("routed={} unmatched={} timedOut={} pending={}", getRouted(), getUnmatched(), getTimedOut(), getPending());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		timer.shutdownNow();
+	}
+}
@@ -2,6 +2,7 @@ package qslv.itest;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,10 @@ public class ReserveFundsDao {
 	private RestTemplateProxy restTemplateProxy;
 	@Autowired
 	private RetryTemplate retryTemplate;
+	@Autowired
+	private AsyncRestProxy asyncRestProxy;
+	@Autowired
+	private RestHedger restHedger;
 
 	public void setConfig(ConfigProperties config) {
 		this.config = config;
@@ -47,17 +52,23 @@ public class ReserveFundsDao {
 	public void setRestTimer( RestClientElapsedTimeSLILogger restTimer) {
 		this.restTimer=restTimer;
 	}
+	public void setAsyncTemplate(AsyncRestProxy asyncRestProxy) {
+		this.asyncRestProxy = asyncRestProxy;
+	}
+	public void setRestHedger(RestHedger restHedger) {
+		this.restHedger = restHedger;
+	}
 	
 	public ReserveFundsResponse reserveFunds(final Map<String, String> callingHeaders, final ReserveFundsRequest request) {
 		log.trace("recordReservation ENTRY {}", request.toString());
 
 		ResponseEntity<TimedResponse<ReserveFundsResponse>> response;
 		try {
-			response = retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<ReserveFundsResponse>>, ResourceAccessException>() {
+			response = restHedger.execute(config.getReserveFundsUrl(), () -> retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<ReserveFundsResponse>>, ResourceAccessException>() {
 				public ResponseEntity<TimedResponse<ReserveFundsResponse>> doWithRetry( RetryContext context) throws ResourceAccessException {
 						return restTemplateProxy.exchange(config.getReserveFundsUrl(), HttpMethod.POST, 
 								new HttpEntity<ReserveFundsRequest>(request, buildHeaders(callingHeaders)), typeReference);
-				} });
+				} }));
 		} 
 		catch (ResourceAccessException ex ) {
 			String msg = String.format("HTTP POST to URL %s with %d retries failed.", config.getReservationUrl(), config.getRestAttempts());
@@ -69,11 +80,18 @@ public class ReserveFundsDao {
 			throw ex;
 		}
 		
-		//TODO compare remote time vs. local time
 		log.trace("recordReservation EXIT");
 		return response.getBody().getPayload();
 	}
 	
+	public CompletableFuture<ReserveFundsResponse> reserveFundsAsync(final Map<String, String> callingHeaders, final ReserveFundsRequest request) {
+		log.trace("reserveFundsAsync ENTRY {}", request.toString());
+
+		return restHedger.executeAsync(config.getReserveFundsUrl(), () -> asyncRestProxy.exchange(config.getReserveFundsUrl(), HttpMethod.POST,
+				new HttpEntity<ReserveFundsRequest>(request, buildHeaders(callingHeaders)), typeReference))
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
 	private HttpHeaders buildHeaders(final Map<String, String> callingHeaders) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.APPLICATION_JSON);
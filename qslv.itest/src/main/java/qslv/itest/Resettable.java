@@ -0,0 +1,9 @@
+package qslv.itest;
+
+/*
+ * A recorder whose counters and latencies can be cleared between runs. WarmUp.resetRecorders() clears every bean
+ * implementing it, so a new recorder only has to implement this to be cleared after warm-up and between tests.
+ */
+public interface Resettable {
+	void reset();
+}
@@ -1,18 +1,27 @@
 package qslv.itest;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.retry.backoff.ExponentialBackOffPolicy;
-import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import qslv.util.RestClientElapsedTimeSLILogger;
 
@@ -20,10 +29,32 @@ import qslv.util.RestClientElapsedTimeSLILogger;
 public class RestConfig {
 	@Autowired
 	private ConfigProperties config;
+	@Autowired
+	private RestResilience restResilience;
 	
+	@Bean(destroyMethod = "shutdown")
+	public PoolingHttpClientConnectionManager restConnectionManager() {
+		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(config.getRestKeepAlive(), TimeUnit.MILLISECONDS);
+		cm.setMaxTotal(config.getRestPoolMaxTotal());
+		cm.setDefaultMaxPerRoute(config.getRestPoolMaxPerRoute());
+		cm.setValidateAfterInactivity(config.getRestValidateAfterInactivity());
+		return cm;
+	}
+
 	@Bean
 	public RestTemplate restTemplate() {
-        HttpComponentsClientHttpRequestFactory httpRequestFactory = new HttpComponentsClientHttpRequestFactory(HttpClients.createDefault());
+		// honor the server's Keep-Alive header, otherwise fall back to the configured keep-alive
+		ConnectionKeepAliveStrategy keepAlive = (response, context) -> {
+			long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverKeepAlive > 0 ? serverKeepAlive : config.getRestKeepAlive();
+		};
+		HttpComponentsClientHttpRequestFactory httpRequestFactory = new HttpComponentsClientHttpRequestFactory(
+				HttpClients.custom()
+					.setConnectionManager(restConnectionManager())
+					.setKeepAliveStrategy(keepAlive)
+					.evictExpiredConnections()
+					.evictIdleConnections(config.getRestIdleEvict(), TimeUnit.MILLISECONDS)
+					.build());
         httpRequestFactory.setConnectionRequestTimeout(config.getRestConnectionRequestTimeout());;
         httpRequestFactory.setConnectTimeout(config.getRestConnectTimeout());
         httpRequestFactory.setReadTimeout(config.getRestTimeout());
@@ -31,19 +62,32 @@ public class RestConfig {
         return new RestTemplate(httpRequestFactory);
 	}
 	
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider asyncConnectionProvider() {
+		return ConnectionProvider.builder("qslv-itest")
+				.maxConnections(config.getRestPoolMaxTotal())
+				.pendingAcquireTimeout(Duration.ofMillis(config.getRestConnectionRequestTimeout()))
+				.maxIdleTime(Duration.ofMillis(config.getRestIdleEvict()))
+				.build();
+	}
+
+	@Bean
+	public WebClient webClient() {
+		HttpClient httpClient = HttpClient.create(asyncConnectionProvider())
+				.tcpConfiguration(tcp -> tcp.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getRestConnectTimeout()));
+		return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+	}
+
 	@Bean 
 	public RetryTemplate retryTemplate() {
-		ExponentialBackOffPolicy bop = new ExponentialBackOffPolicy();
-		bop.setMaxInterval(config.getRestBackoffDelay());
-		bop.setMaxInterval(config.getRestBackoffDelayMax());
-		
-		SimpleRetryPolicy srp = new SimpleRetryPolicy();
-		srp.setMaxAttempts(config.getRestAttempts());
+		DecorrelatedJitterBackOffPolicy bop = new DecorrelatedJitterBackOffPolicy(config.getRestBackoffDelay(), config.getRestBackoffDelayMax());
+		BudgetedRetryPolicy brp = new BudgetedRetryPolicy(config.getRestAttempts(), restResilience);
 		
 		RetryTemplate retryTemplate = new RetryTemplate();
 		retryTemplate.setThrowLastExceptionOnExhausted(true);
-		retryTemplate.setRetryPolicy(srp);
+		retryTemplate.setRetryPolicy(brp);
 		retryTemplate.setBackOffPolicy(bop);
+		retryTemplate.registerListener(restResilience);
 		
 		return retryTemplate;
 	}
@@ -0,0 +1,266 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Hedged requests for endpoints that are idempotent on requestUUID. When enabled, a call that has not answered
+ * by the endpoint's restHedgePercentile latency is sent a second time and the first successful answer wins.
+ * The losing attempt is cancelled. "primary" latency only counts first attempts that answered on their own, a
+ * cancelled one has no latency of its own and is counted in primariesCancelled; "hedged" is what the caller saw.
+ * At most restHedgeMaxConcurrent hedges are outstanding, and blocking calls run on a pool of that many threads.
+ * Past either limit the call goes out unhedged, so hedging cannot double the load on a service that is already slow.
+ */
+@Component
+public class RestHedger implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(RestHedger.class);
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private ServiceLatencyRecorder latencyRecorder;
+
+	private final Map<String, HedgeStatistics> statistics = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("hedge-timer"));
+	private ThreadPoolExecutor executor;
+	private Semaphore hedgePermits;
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+	public void setLatencyRecorder(ServiceLatencyRecorder latencyRecorder) {
+		this.latencyRecorder = latencyRecorder;
+	}
+
+	@PostConstruct
+	public void init() {
+		int maxConcurrent = Math.max(1, config.getRestHedgeMaxConcurrent());
+		executor = new ThreadPoolExecutor(0, maxConcurrent, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				daemonThreads("hedge-call"), new ThreadPoolExecutor.AbortPolicy());
+		hedgePermits = new Semaphore(maxConcurrent);
+	}
+
+	public static class HedgeStatistics {
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong hedges = new AtomicLong();
+		private final AtomicLong hedgeWins = new AtomicLong();
+		private final AtomicLong hedgesSkipped = new AtomicLong();
+		private final AtomicLong primariesCancelled = new AtomicLong();
+		private final LatencyHistogram primary = new LatencyHistogram();
+		private final LatencyHistogram hedged = new LatencyHistogram();
+
+		public long getCalls() {
+			return calls.get();
+		}
+		public long getHedges() {
+			return hedges.get();
+		}
+		public long getHedgeWins() {
+			return hedgeWins.get();
+		}
+		public long getHedgesSkipped() {
+			return hedgesSkipped.get();
+		}
+		public long getPrimariesCancelled() {
+			return primariesCancelled.get();
+		}
+		public double getHedgeRate() {
+			return calls.get() == 0 ? 0.0 : (double) hedges.get() / calls.get();
+		}
+		public LatencyHistogram getPrimary() {
+			return primary;
+		}
+		public LatencyHistogram getHedged() {
+			return hedged;
+		}
+	}
+
+	public <T> T execute(String url, Supplier<T> call) {
+		if (!config.isRestHedgeEnabled()) {
+			return call.get();
+		}
+		CompletableFuture<T> result;
+		try {
+			result = executeAsync(url, () -> submit(call));
+		} catch (RejectedExecutionException ex) {
+			log.debug("execute pool full, {} unhedged", url);
+			statistics.computeIfAbsent(url, k -> new HedgeStatistics()).hedgesSkipped.incrementAndGet();
+			return call.get();
+		}
+		try {
+			return result.get();
+		} catch (InterruptedException ex) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	public <T> CompletableFuture<T> executeAsync(String url, Supplier<CompletableFuture<T>> call) {
+		if (!config.isRestHedgeEnabled()) {
+			return call.get();
+		}
+		HedgeStatistics stats = statistics.computeIfAbsent(url, k -> new HedgeStatistics());
+
+		final long start = System.nanoTime();
+		CompletableFuture<T> result = new CompletableFuture<>();
+		AtomicInteger outstanding = new AtomicInteger(1);
+
+		CompletableFuture<T> primary = call.get();
+		stats.calls.incrementAndGet();
+		primary.whenComplete((response, ex) -> {
+			if (primary.isCancelled()) {
+				stats.primariesCancelled.incrementAndGet();
+			} else {
+				stats.primary.record(System.nanoTime() - start);
+			}
+			complete(result, response, ex, outstanding);
+		});
+
+		CompletableFuture<CompletableFuture<T>> hedgeAttempt = new CompletableFuture<>();
+		ScheduledFuture<?> hedge = timer.schedule(() -> {
+			if (result.isDone()) {
+				return;
+			}
+			if (!hedgePermits.tryAcquire()) {
+				stats.hedgesSkipped.incrementAndGet();
+				return;
+			}
+			CompletableFuture<T> attempt;
+			try {
+				attempt = call.get();
+			} catch (RejectedExecutionException ex) {
+				hedgePermits.release();
+				stats.hedgesSkipped.incrementAndGet();
+				return;
+			}
+			outstanding.incrementAndGet();
+			stats.hedges.incrementAndGet();
+			log.debug("executeAsync hedging {}", url);
+			hedgeAttempt.complete(attempt);
+			attempt.whenComplete((response, ex) -> {
+				hedgePermits.release();
+				if (ex == null && !result.isDone()) {
+					stats.hedgeWins.incrementAndGet();
+				}
+				complete(result, response, ex, outstanding);
+			});
+		}, hedgeDelayNanos(url), TimeUnit.NANOSECONDS);
+
+		result.whenComplete((response, ex) -> {
+			hedge.cancel(false);
+			stats.hedged.record(System.nanoTime() - start);
+			// the loser is still running; stop it rather than let it load the service for nothing
+			primary.cancel(true);
+			hedgeAttempt.thenAccept(attempt -> attempt.cancel(true));
+		});
+		return result;
+	}
+
+	/*
+	 * Runs a blocking call on the hedge pool. Cancelling the returned future interrupts the call, which ends a wait
+	 * for a pooled connection or a retry backoff; a request already on the wire runs to its timeout.
+	 */
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		CompletableFuture<T> attempt = new CompletableFuture<>();
+		Future<?> task = executor.submit(() -> {
+			try {
+				attempt.complete(call.get());
+			} catch (Throwable ex) {
+				attempt.completeExceptionally(ex);
+			}
+		});
+		attempt.whenComplete((response, ex) -> {
+			if (attempt.isCancelled()) {
+				task.cancel(true);
+			}
+		});
+		return attempt;
+	}
+
+	/*
+	 * First success wins; the call only fails once every attempt that was sent has failed.
+	 */
+	private static <T> void complete(CompletableFuture<T> result, T response, Throwable ex, AtomicInteger outstanding) {
+		if (ex == null) {
+			result.complete(response);
+		} else if (outstanding.decrementAndGet() == 0) {
+			result.completeExceptionally(ex);
+		}
+	}
+
+	private long hedgeDelayNanos(String url) {
+		long minDelay = TimeUnit.MILLISECONDS.toNanos(config.getRestHedgeMinDelay());
+		ServiceLatencyRecorder.EndpointLatency latency = latencyRecorder.getEndpoint(url);
+		if (latency == null || latency.getClient().getCount() < config.getRestHedgeMinSamples()) {
+			return minDelay;
+		}
+		return Math.max(minDelay, latency.getClient().valueAtPercentile(config.getRestHedgePercentile()));
+	}
+
+	public Map<String, HedgeStatistics> getStatistics() {
+		return new TreeMap<>(statistics);
+	}
+
+	@Override
+	public void reset() {
+		statistics.clear();
+	}
+
+	public void logStatistics() {
+		getStatistics().forEach((url, stats) -> {
+			log.info("{} calls={} hedges={} hedgeRate={} hedgeWins={} hedgesSkipped={} primariesCancelled={}", url, stats.getCalls(),
+					stats.getHedges(), String.format("%.2f%%", stats.getHedgeRate() * 100.0), stats.getHedgeWins(), stats.getHedgesSkipped(),
+					stats.getPrimariesCancelled());
+			log.info("{} unhedged primaries p99 {}ms -> {}ms, p99.9 {}ms -> {}ms", url,
+					String.format("%.3f", stats.primary.valueAtPercentile(99.0) / 1e6),
+					String.format("%.3f", stats.hedged.valueAtPercentile(99.0) / 1e6),
+					String.format("%.3f", stats.primary.valueAtPercentile(99.9) / 1e6),
+					String.format("%.3f", stats.hedged.valueAtPercentile(99.9) / 1e6));
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		timer.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,51 @@
+package qslv.itest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Samples the pooled HTTP connection manager behind RestConfig.restTemplate so load runs
+ * can tell pool starvation (pending > 0, available == 0) from slow services.
+ */
+@Component
+public class RestPoolMonitor {
+	private static final Logger log = LoggerFactory.getLogger(RestPoolMonitor.class);
+
+	@Autowired
+	private PoolingHttpClientConnectionManager restConnectionManager;
+
+	public void setRestConnectionManager(PoolingHttpClientConnectionManager restConnectionManager) {
+		this.restConnectionManager = restConnectionManager;
+	}
+
+	public PoolStats sample() {
+		return restConnectionManager.getTotalStats();
+	}
+
+	public Map<String, PoolStats> sampleByRoute() {
+		Map<String, PoolStats> stats = new LinkedHashMap<>();
+		for (HttpRoute route : restConnectionManager.getRoutes()) {
+			stats.put(route.getTargetHost().toURI(), restConnectionManager.getStats(route));
+		}
+		return stats;
+	}
+
+	public void logStatistics() {
+		PoolStats total = sample();
+		log.info("HTTP pool leased={} pending={} available={} max={}", total.getLeased(), total.getPending(),
+				total.getAvailable(), total.getMax());
+		for (Map.Entry<String, PoolStats> entry : sampleByRoute().entrySet()) {
+			log.info("HTTP pool route={} leased={} pending={} available={} max={}", entry.getKey(),
+					entry.getValue().getLeased(), entry.getValue().getPending(), entry.getValue().getAvailable(),
+					entry.getValue().getMax());
+		}
+	}
+}
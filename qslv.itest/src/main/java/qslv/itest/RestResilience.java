@@ -0,0 +1,106 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+/*
+ * Per-URL retry budgets, circuit breakers and attempt counters shared by RestTemplateProxy, AsyncRestProxy
+ * and RestConfig.retryTemplate. The proxies tag the current RetryContext with the URL they call so the
+ * retry policy and this listener can find the right budget.
+ */
+@Component
+public class RestResilience extends RetryListenerSupport implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(RestResilience.class);
+	public static final String URL_ATTRIBUTE = "qslv.url";
+
+	@Autowired
+	private ConfigProperties config;
+
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public class Endpoint {
+		private final RetryBudget budget = new RetryBudget(config.getRestRetryBudgetRatio(), config.getRestRetryBudgetReserve());
+		private final CircuitBreaker breaker = new CircuitBreaker(config.getRestBreakerFailureThreshold(),
+				TimeUnit.MILLISECONDS.toNanos(config.getRestBreakerOpenTime()));
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong failedCalls = new AtomicLong();
+		private final AtomicLong attempts = new AtomicLong();
+
+		public RetryBudget getBudget() {
+			return budget;
+		}
+		public CircuitBreaker getBreaker() {
+			return breaker;
+		}
+		public long getCalls() {
+			return calls.get();
+		}
+		public long getFailedCalls() {
+			return failedCalls.get();
+		}
+		public long getAttempts() {
+			return attempts.get();
+		}
+		public double getAttemptsPerCall() {
+			return calls.get() == 0 ? 0.0 : (double) attempts.get() / calls.get();
+		}
+	}
+
+	public Endpoint endpoint(String url) {
+		return endpoints.computeIfAbsent(url, k -> new Endpoint());
+	}
+
+	public void recordAttempt(String url) {
+		endpoint(url).attempts.incrementAndGet();
+	}
+
+	public void recordCall(String url, boolean success) {
+		Endpoint endpoint = endpoint(url);
+		endpoint.calls.incrementAndGet();
+		if (success) {
+			endpoint.budget.recordSuccess();
+		} else {
+			endpoint.failedCalls.incrementAndGet();
+		}
+	}
+
+	@Override
+	public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+		Object url = context.getAttribute(URL_ATTRIBUTE);
+		if (url != null) {
+			recordCall(url.toString(), throwable == null);
+		}
+	}
+
+	public Map<String, Endpoint> getEndpoints() {
+		return new TreeMap<>(endpoints);
+	}
+
+	@Override
+	public void reset() {
+		endpoints.clear();
+	}
+
+	public void logStatistics() {
+		getEndpoints().forEach((url, endpoint) -> log.info(
+				"{} calls={} failed={} attempts={} attemptsPerCall={} retriesDenied={} breaker={} breakerTrips={} breakerRejected={}",
+				url, endpoint.getCalls(), endpoint.getFailedCalls(), endpoint.getAttempts(),
+				String.format("%.3f", endpoint.getAttemptsPerCall()), endpoint.budget.getDenied(),
+				endpoint.breaker.getState(), endpoint.breaker.getTrips(), endpoint.breaker.getRejected()));
+	}
+}
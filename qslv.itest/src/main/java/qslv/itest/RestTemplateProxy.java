@@ -1,38 +1,126 @@
 package qslv.itest;
 
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import qslv.util.RemoteServiceSLI;
+import qslv.util.RestClientElapsedTimeSLILogger;
 
 /*
- * In order to use @Annotations to inject service call timings, a proxy bean was needed
- * so Spring could recognize the method call and inject the Aspect/Advice
+ * Single choke point for blocking REST calls. Each attempt is timed by EndpointTimer and logged as an SLI line to
+ * the RestClientElapsedTimeSLILogger category, both tagged with the resolved URL path, so the calls of different
+ * endpoints are not mixed under one label.
  */
 @Component
 public class RestTemplateProxy  {
+	private static final Logger sli = LoggerFactory.getLogger(RestClientElapsedTimeSLILogger.class);
+
+	@Autowired
+	ConfigProperties config;
 	@Autowired
 	RestTemplate restTemplate;
+	@Autowired
+	ServiceLatencyRecorder latencyRecorder;
+	@Autowired
+	RestResilience resilience;
+	@Autowired
+	EndpointTimer endpointTimer;
+	@Autowired
+	ServiceInstanceBalancer balancer;
 
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
 	public void setRestTemplate(RestTemplate restTemplate) {
 		this.restTemplate = restTemplate;
 	}
+	public void setLatencyRecorder(ServiceLatencyRecorder latencyRecorder) {
+		this.latencyRecorder = latencyRecorder;
+	}
+	public void setResilience(RestResilience resilience) {
+		this.resilience = resilience;
+	}
+	public void setEndpointTimer(EndpointTimer endpointTimer) {
+		this.endpointTimer = endpointTimer;
+	}
+	public void setBalancer(ServiceInstanceBalancer balancer) {
+		this.balancer = balancer;
+	}
 
-	@RemoteServiceSLI(value="POST /Transaction", ait="55555", remoteAit="11111", remoteFailures= {ResourceAccessException.class})
 	public <T> ResponseEntity<T> exchange(String url, HttpMethod method, @Nullable HttpEntity<?> requestEntity, ParameterizedTypeReference<T> responseType, Object... uriVariables) throws RestClientException {
-		return restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
+		return guarded(url, method, instanceUrl -> restTemplate.exchange(instanceUrl, method, requestEntity, responseType, uriVariables));
 	}
-	@RemoteServiceSLI(value="POST /Transaction", ait="66666", remoteAit="22222", remoteFailures= {ResourceAccessException.class})
 	public <T> ResponseEntity<T> exchange(String url, HttpMethod method, @Nullable HttpEntity<?> requestEntity, Class<T> responseType, Object... uriVariables) throws RestClientException {
-		return restTemplate.exchange(url, method, requestEntity, responseType, uriVariables);
+		return guarded(url, method, instanceUrl -> restTemplate.exchange(instanceUrl, method, requestEntity, responseType, uriVariables));
+	}
+
+	/*
+	 * One attempt against url: checked against the URL's circuit breaker, routed to one of its instances,
+	 * counted, and timed. Transport failures (ResourceAccessException) and 5xx responses count against the breaker
+	 * and the instance; any other outcome, a 4xx or a body that could not be read included, counts as healthy.
+	 */
+	private <T> ResponseEntity<T> guarded(String url, HttpMethod method, Function<String, ResponseEntity<T>> exchange) {
+		RetryContext context = RetrySynchronizationManager.getContext();
+		if (context != null) {
+			context.setAttribute(RestResilience.URL_ATTRIBUTE, url);
+		}
+		CircuitBreaker breaker = resilience.endpoint(url).getBreaker();
+		if (!breaker.tryAcquire()) {
+			throw new CircuitBreakerOpenException(url);
+		}
+		resilience.recordAttempt(url);
+
+		ServiceInstanceBalancer.Instance instance = balancer.choose(url);
+		boolean healthy = false;
+		long start = System.nanoTime();
+		try {
+			ResponseEntity<T> response = exchange.apply(instance.getUrl());
+			long elapsed = System.nanoTime() - start;
+			endpointTimer.record(instance.getUrl(), method, response.getStatusCodeValue(), elapsed);
+			sli.info("SLI {} {} ait={} status={} elapsed={}ns", method, EndpointTimer.path(url), config.getAitid(),
+					response.getStatusCodeValue(), elapsed);
+			latencyRecorder.record(url, elapsed, response.getBody());
+			healthy = true;
+			return response;
+		} catch (HttpStatusCodeException ex) {
+			long elapsed = System.nanoTime() - start;
+			endpointTimer.record(instance.getUrl(), method, ex.getRawStatusCode(), elapsed);
+			sli.info("SLI {} {} ait={} status={} elapsed={}ns", method, EndpointTimer.path(url), config.getAitid(),
+					ex.getRawStatusCode(), elapsed);
+			healthy = !(ex instanceof HttpServerErrorException);
+			throw ex;
+		} catch (ResourceAccessException ex) {
+			long elapsed = System.nanoTime() - start;
+			endpointTimer.record(instance.getUrl(), method, EndpointTimer.TRANSPORT_FAILURE, elapsed);
+			sli.info("SLI {} {} ait={} failure={} elapsed={}ns", method, EndpointTimer.path(url), config.getAitid(),
+					ex.getClass().getSimpleName(), elapsed);
+			throw ex;
+		} catch (RuntimeException ex) {
+			// the service answered, but the body could not be read; not the service's fault
+			healthy = true;
+			throw ex;
+		} finally {
+			balancer.release(instance, System.nanoTime() - start, healthy);
+			if (healthy) {
+				breaker.recordSuccess();
+			} else {
+				breaker.recordFailure();
+			}
+		}
 	}
-	
 }
@@ -0,0 +1,53 @@
+package qslv.itest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Token bucket that caps retries at a fraction of successful calls. Each success deposits ratio tokens,
+ * each retry withdraws one. The balance starts at, and never exceeds, ratio * 100 + reserve tokens so an
+ * idle client can still retry a few times, while a failing service cannot be hit with unbounded retries.
+ */
+public class RetryBudget {
+	private static final long TOKEN = 1000L;
+
+	private final long deposit;
+	private final long maxBalance;
+	private final AtomicLong balance;
+	private final AtomicLong denied = new AtomicLong();
+
+	public RetryBudget(double ratio, int reserve) {
+		this.deposit = (long) (ratio * TOKEN);
+		this.maxBalance = (long) (ratio * 100 * TOKEN) + reserve * TOKEN;
+		this.balance = new AtomicLong(maxBalance);
+	}
+
+	public void recordSuccess() {
+		long current;
+		do {
+			current = balance.get();
+			if (current >= maxBalance) {
+				return;
+			}
+		} while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+	}
+
+	public boolean tryRetry() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < TOKEN) {
+				denied.incrementAndGet();
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - TOKEN));
+		return true;
+	}
+
+	public long getDenied() {
+		return denied.get();
+	}
+
+	public double getBalance() {
+		return (double) balance.get() / TOKEN;
+	}
+}
@@ -0,0 +1,179 @@
+package qslv.itest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/*
+ * Client-side load balancing. Any of the qslv.*-url properties may hold a comma separated list of instance URLs;
+ * each attempt is routed to one instance by power-of-two-choices ("p2c") or least-outstanding-requests
+ * ("least-outstanding"), ties broken by the instance's moving average latency. An instance with
+ * restEjectFailures consecutive failures is skipped for restEjectTime ms, unless every instance is ejected.
+ */
+@Component
+public class ServiceInstanceBalancer implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(ServiceInstanceBalancer.class);
+	private static final double EWMA_WEIGHT = 0.2;
+
+	@Autowired
+	private ConfigProperties config;
+
+	private final Map<String, Instance[]> pools = new ConcurrentHashMap<>();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	public static class Instance {
+		private final String url;
+		private final AtomicInteger outstanding = new AtomicInteger();
+		private final AtomicInteger consecutiveFailures = new AtomicInteger();
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong ejections = new AtomicLong();
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private volatile double averageNanos;
+		private volatile long ejectedUntil;
+		private volatile boolean ejected;
+
+		Instance(String url) {
+			this.url = url;
+		}
+		public String getUrl() {
+			return url;
+		}
+		public int getOutstanding() {
+			return outstanding.get();
+		}
+		public long getRequests() {
+			return requests.get();
+		}
+		public long getFailures() {
+			return failures.get();
+		}
+		public long getEjections() {
+			return ejections.get();
+		}
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+		public double getAverageNanos() {
+			return averageNanos;
+		}
+		boolean isAvailable(long now) {
+			return !ejected || now - ejectedUntil >= 0;
+		}
+	}
+
+	public Instance choose(String configuredUrl) {
+		Instance[] instances = pools.computeIfAbsent(configuredUrl, ServiceInstanceBalancer::parse);
+		Instance chosen = instances.length == 1 ? instances[0] : select(instances);
+		chosen.outstanding.incrementAndGet();
+		chosen.requests.incrementAndGet();
+		return chosen;
+	}
+
+	public void release(Instance instance, long nanos, boolean success) {
+		instance.outstanding.decrementAndGet();
+		instance.latency.record(nanos);
+		instance.averageNanos = instance.averageNanos == 0.0 ? nanos
+				: instance.averageNanos + EWMA_WEIGHT * (nanos - instance.averageNanos);
+		if (success) {
+			instance.consecutiveFailures.set(0);
+			instance.ejected = false;
+			return;
+		}
+		instance.failures.incrementAndGet();
+		if (instance.consecutiveFailures.incrementAndGet() >= config.getRestEjectFailures()) {
+			instance.consecutiveFailures.set(0);
+			instance.ejectedUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getRestEjectTime());
+			instance.ejected = true;
+			instance.ejections.incrementAndGet();
+			log.warn("release ejecting {} for {}ms", instance.url, config.getRestEjectTime());
+		}
+	}
+
+	/*
+	 * Returns the slot of an attempt that was cancelled before it answered; it says nothing about the instance.
+	 */
+	public void abandon(Instance instance) {
+		instance.outstanding.decrementAndGet();
+	}
+
+	private Instance select(Instance[] instances) {
+		long now = System.nanoTime();
+		Instance[] available = Arrays.stream(instances).filter(i -> i.isAvailable(now)).toArray(Instance[]::new);
+		if (available.length == 0) {
+			available = instances;
+		}
+		if (available.length == 1) {
+			return available[0];
+		}
+		if ("least-outstanding".equals(config.getRestBalancerPolicy())) {
+			Instance best = available[ThreadLocalRandom.current().nextInt(available.length)];
+			for (Instance candidate : available) {
+				best = better(best, candidate);
+			}
+			return best;
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(available.length);
+		int second = random.nextInt(available.length - 1);
+		if (second >= first) {
+			second++;
+		}
+		return better(available[first], available[second]);
+	}
+
+	private static Instance better(Instance a, Instance b) {
+		int outstandingA = a.outstanding.get();
+		int outstandingB = b.outstanding.get();
+		if (outstandingA != outstandingB) {
+			return outstandingA < outstandingB ? a : b;
+		}
+		return a.averageNanos <= b.averageNanos ? a : b;
+	}
+
+	private static Instance[] parse(String configuredUrl) {
+		return Arrays.stream(configuredUrl.split(","))
+				.map(String::trim)
+				.filter(url -> !url.isEmpty())
+				.map(Instance::new)
+				.toArray(Instance[]::new);
+	}
+
+	/*
+	 * Clears the counters and latency of every instance; moving averages and ejections are kept.
+	 */
+	@Override
+	public void reset() {
+		pools.values().forEach(pool -> Arrays.stream(pool).forEach(instance -> {
+			instance.requests.set(0);
+			instance.failures.set(0);
+			instance.ejections.set(0);
+			instance.latency.reset();
+		}));
+	}
+
+	public Map<String, Instance> getInstances() {
+		Map<String, Instance> instances = new LinkedHashMap<>();
+		pools.values().forEach(pool -> Arrays.stream(pool).forEach(instance -> instances.put(instance.url, instance)));
+		return instances;
+	}
+
+	public void logStatistics() {
+		getInstances().forEach((url, instance) -> log.info("{} requests={} failures={} outstanding={} ejections={} {}", url,
+				instance.getRequests(), instance.getFailures(), instance.getOutstanding(), instance.getEjections(),
+				instance.getLatency().summary()));
+	}
+}
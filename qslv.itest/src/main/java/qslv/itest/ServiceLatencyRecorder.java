@@ -0,0 +1,74 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import qslv.common.TimedResponse;
+
+/*
+ * Splits each successful REST attempt into the time the service reports in TimedResponse and the
+ * remainder (network, ingress and client queuing), per endpoint.
+ */
+@Component
+public class ServiceLatencyRecorder implements Resettable {
+	private static final Logger log = LoggerFactory.getLogger(ServiceLatencyRecorder.class);
+
+	private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+	public static class EndpointLatency {
+		private final LatencyHistogram client = new LatencyHistogram();
+		private final LatencyHistogram server = new LatencyHistogram();
+		private final LatencyHistogram network = new LatencyHistogram();
+
+		public LatencyHistogram getClient() {
+			return client;
+		}
+		public LatencyHistogram getServer() {
+			return server;
+		}
+		public LatencyHistogram getNetwork() {
+			return network;
+		}
+		void reset() {
+			client.reset();
+			server.reset();
+			network.reset();
+		}
+	}
+
+	public void record(String endpoint, long clientNanos, Object body) {
+		EndpointLatency latency = endpoints.computeIfAbsent(endpoint, k -> new EndpointLatency());
+		latency.client.record(clientNanos);
+		if (body instanceof TimedResponse) {
+			long serverNanos = ((TimedResponse<?>) body).getServiceTimeElapsed();
+			latency.server.record(serverNanos);
+			latency.network.record(Math.max(0L, clientNanos - serverNanos));
+		}
+	}
+
+	public EndpointLatency getEndpoint(String endpoint) {
+		return endpoints.get(endpoint);
+	}
+
+	public Map<String, EndpointLatency> getEndpoints() {
+		return new TreeMap<>(endpoints);
+	}
+
+	@Override
+	public void reset() {
+		endpoints.values().forEach(EndpointLatency::reset);
+	}
+
+	public void logStatistics() {
+		getEndpoints().forEach((endpoint, latency) -> {
+			log.info("{} client:  {}", endpoint, latency.client.summary());
+			log.info("{} server:  {}", endpoint, latency.server.summary());
+			log.info("{} network: {}", endpoint, latency.network.summary());
+		});
+	}
+}
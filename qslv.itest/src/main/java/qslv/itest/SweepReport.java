@@ -0,0 +1,96 @@
+package qslv.itest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Results of a closed-loop concurrency sweep, one Step per concurrency level. A Step's latency and throughput
+ * cover successful calls only; failed calls are counted in errors.
+ * The knee is the last level whose successor failed to raise throughput by the configured gain:
+ * past it, extra concurrency only adds queueing delay.
+ */
+public class SweepReport {
+	private final String name;
+	private final List<Step> steps = new ArrayList<>();
+	private int kneeIndex = -1;
+
+	public SweepReport(String name) {
+		this.name = name;
+	}
+
+	public static class Step {
+		private final int users;
+		private final long elapsedNanos;
+		private final long errors;
+		private final LatencyHistogram latency;
+
+		public Step(int users, long elapsedNanos, long errors, LatencyHistogram latency) {
+			this.users = users;
+			this.elapsedNanos = elapsedNanos;
+			this.errors = errors;
+			this.latency = latency;
+		}
+		public int getUsers() {
+			return users;
+		}
+		public long getErrors() {
+			return errors;
+		}
+		public LatencyHistogram getLatency() {
+			return latency;
+		}
+		public double getThroughput() {
+			return elapsedNanos == 0 ? 0.0 : latency.getCount() * 1e9 / elapsedNanos;
+		}
+	}
+
+	void addStep(Step step) {
+		steps.add(step);
+	}
+
+	void findKnee(double minThroughputGain) {
+		kneeIndex = -1;
+		for (int i = 1; i < steps.size(); i++) {
+			Step previous = steps.get(i - 1);
+			Step current = steps.get(i);
+			boolean throughputFlat = current.getThroughput() < previous.getThroughput() * (1.0 + minThroughputGain);
+			boolean latencyRising = current.getLatency().valueAtPercentile(99.0) > previous.getLatency().valueAtPercentile(99.0);
+			if (throughputFlat && latencyRising) {
+				kneeIndex = i - 1;
+				return;
+			}
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+	public List<Step> getSteps() {
+		return Collections.unmodifiableList(steps);
+	}
+	public Step getKnee() {
+		return kneeIndex < 0 ? null : steps.get(kneeIndex);
+	}
+
+	public String summary() {
+		StringBuilder sb = new StringBuilder(String.format("%s concurrency sweep%n", name));
+		sb.append(String.format("%8s %12s %10s %10s %10s %8s%n", "users", "calls/s", "p50 ms", "p99 ms", "max ms", "errors"));
+		for (int i = 0; i < steps.size(); i++) {
+			Step step = steps.get(i);
+			sb.append(String.format("%8d %12.1f %10.3f %10.3f %10.3f %8d%s%n", step.getUsers(), step.getThroughput(),
+					step.getLatency().valueAtPercentile(50.0) / 1e6, step.getLatency().valueAtPercentile(99.0) / 1e6,
+					step.getLatency().getMaxNanos() / 1e6, step.getErrors(), i == kneeIndex ? "  <-- knee" : ""));
+		}
+		if (kneeIndex < 0) {
+			sb.append(String.format("no knee found, throughput still growing at %d users%n",
+					steps.isEmpty() ? 0 : steps.get(steps.size() - 1).getUsers()));
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return summary();
+	}
+}
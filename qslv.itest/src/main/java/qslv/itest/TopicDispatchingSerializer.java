@@ -0,0 +1,45 @@
+package qslv.itest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/*
+ * Value serializer for a producer shared by several message types. Each topic carries exactly one type,
+ * so the delegate is chosen by topic. Delegates are configured before registration; configure() is not passed on.
+ */
+public class TopicDispatchingSerializer implements Serializer<Object> {
+
+	private final Map<String, Serializer<?>> delegates = new ConcurrentHashMap<>();
+
+	public void register(String topic, Serializer<?> delegate) {
+		delegates.put(topic, delegate);
+	}
+
+	@Override
+	public byte[] serialize(String topic, Object data) {
+		return delegate(topic).serialize(topic, data);
+	}
+
+	@Override
+	public byte[] serialize(String topic, Headers headers, Object data) {
+		return delegate(topic).serialize(topic, headers, data);
+	}
+
+	@Override
+	public void close() {
+		delegates.values().forEach(Serializer::close);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Serializer<Object> delegate(String topic) {
+		Serializer<?> delegate = delegates.get(topic);
+		if (delegate == null) {
+			throw new SerializationException(String.format("No serializer registered for topic %s.", topic));
+		}
+		return (Serializer<Object>) delegate;
+	}
+}
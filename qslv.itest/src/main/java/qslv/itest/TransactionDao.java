@@ -2,6 +2,7 @@ package qslv.itest;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,10 @@ public class TransactionDao {
 	private RestTemplateProxy restTemplateProxy;
 	@Autowired
 	private RetryTemplate retryTemplate;
+	@Autowired
+	private AsyncRestProxy asyncRestProxy;
+	@Autowired
+	private RestHedger restHedger;
 
 	public void setConfig(ConfigProperties config) {
 		this.config = config;
@@ -68,6 +73,12 @@ public class TransactionDao {
 	public void setRestTimer( RestClientElapsedTimeSLILogger restTimer) {
 		this.restTimer=restTimer;
 	}
+	public void setAsyncTemplate(AsyncRestProxy asyncRestProxy) {
+		this.asyncRestProxy = asyncRestProxy;
+	}
+	public void setRestHedger(RestHedger restHedger) {
+		this.restHedger = restHedger;
+	}
 	
 	public TransactionResponse postTransaction(final Map<String, String> callingHeaders, final TransactionRequest request) {
 		log.trace("postTransaction ENTRY {}", request.toString());
@@ -99,11 +110,11 @@ public class TransactionDao {
 
 		ResponseEntity<TimedResponse<ReservationResponse>> response;
 		try {
-			response = retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<ReservationResponse>>, ResourceAccessException>() {
+			response = restHedger.execute(config.getReservationUrl(), () -> retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<ReservationResponse>>, ResourceAccessException>() {
 				public ResponseEntity<TimedResponse<ReservationResponse>> doWithRetry( RetryContext context) throws ResourceAccessException {
 						return restTemplateProxy.exchange(config.getReservationUrl(), HttpMethod.POST, 
 								new HttpEntity<ReservationRequest>(request, buildHeaders(callingHeaders)), reservationReference);
-				} });
+				} }));
 		} 
 		catch (ResourceAccessException ex ) {
 			String msg = String.format("HTTP POST to URL %s with %d retries failed.", config.getReservationUrl(), config.getRestAttempts());
@@ -123,11 +134,11 @@ public class TransactionDao {
 
 		ResponseEntity<TimedResponse<CancelReservationResponse>> response;
 		try {
-			response = retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<CancelReservationResponse>>, ResourceAccessException>() {
+			response = restHedger.execute(config.getCancelReservationUrl(), () -> retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<CancelReservationResponse>>, ResourceAccessException>() {
 				public ResponseEntity<TimedResponse<CancelReservationResponse>> doWithRetry( RetryContext context) throws ResourceAccessException {
 						return restTemplateProxy.exchange(config.getCancelReservationUrl(), HttpMethod.POST, 
 								new HttpEntity<CancelReservationRequest>(request, buildHeaders(callingHeaders)), cancelReference);
-				} });
+				} }));
 		} 
 		catch (ResourceAccessException ex ) {
 			String msg = String.format("HTTP POST to URL %s with %d retries failed.", config.getCancelReservationUrl(), config.getRestAttempts());
@@ -147,11 +158,11 @@ public class TransactionDao {
 
 		ResponseEntity<TimedResponse<CommitReservationResponse>> response;
 		try {
-			response = retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<CommitReservationResponse>>, ResourceAccessException>() {
+			response = restHedger.execute(config.getCommitReservationUrl(), () -> retryTemplate.execute(new RetryCallback<ResponseEntity<TimedResponse<CommitReservationResponse>>, ResourceAccessException>() {
 				public ResponseEntity<TimedResponse<CommitReservationResponse>> doWithRetry( RetryContext context) throws ResourceAccessException {
 						return restTemplateProxy.exchange(config.getCommitReservationUrl(), HttpMethod.POST, 
 								new HttpEntity<CommitReservationRequest>(request, buildHeaders(callingHeaders)), commitReference);
-				} });
+				} }));
 		} 
 		catch (ResourceAccessException ex ) {
 			String msg = String.format("HTTP POST to URL %s with %d retries failed.", config.getCommitReservationUrl(), config.getRestAttempts());
@@ -190,6 +201,46 @@ public class TransactionDao {
 		log.trace("postTransaction EXIT");
 		return response.getBody().getPayload();
 	}
+	public CompletableFuture<TransactionResponse> postTransactionAsync(final Map<String, String> callingHeaders, final TransactionRequest request) {
+		log.trace("postTransactionAsync ENTRY {}", request.toString());
+
+		return asyncRestProxy.exchange(config.getTransactionUrl(), HttpMethod.POST,
+				new HttpEntity<TransactionRequest>(request, buildHeaders(callingHeaders)), transactionReference)
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
+	public CompletableFuture<ReservationResponse> postReservationAsync(final Map<String, String> callingHeaders, final ReservationRequest request) {
+		log.trace("postReservationAsync ENTRY {}", request.toString());
+
+		return restHedger.executeAsync(config.getReservationUrl(), () -> asyncRestProxy.exchange(config.getReservationUrl(), HttpMethod.POST,
+				new HttpEntity<ReservationRequest>(request, buildHeaders(callingHeaders)), reservationReference))
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
+	public CompletableFuture<CancelReservationResponse> cancelReservationAsync(final Map<String, String> callingHeaders, final CancelReservationRequest request) {
+		log.trace("cancelReservationAsync ENTRY {}", request.toString());
+
+		return restHedger.executeAsync(config.getCancelReservationUrl(), () -> asyncRestProxy.exchange(config.getCancelReservationUrl(), HttpMethod.POST,
+				new HttpEntity<CancelReservationRequest>(request, buildHeaders(callingHeaders)), cancelReference))
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
+	public CompletableFuture<CommitReservationResponse> commitReservationAsync(final Map<String, String> callingHeaders, final CommitReservationRequest request) {
+		log.trace("commitReservationAsync ENTRY {}", request.toString());
+
+		return restHedger.executeAsync(config.getCommitReservationUrl(), () -> asyncRestProxy.exchange(config.getCommitReservationUrl(), HttpMethod.POST,
+				new HttpEntity<CommitReservationRequest>(request, buildHeaders(callingHeaders)), commitReference))
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
+	public CompletableFuture<TransferAndTransactResponse> transferAndTransactAsync(final Map<String, String> callingHeaders, final TransferAndTransactRequest request) {
+		log.trace("transferAndTransactAsync ENTRY {}", request.toString());
+
+		return asyncRestProxy.exchange(config.getTransferAndTransactUrl(), HttpMethod.POST,
+				new HttpEntity<TransferAndTransactRequest>(request, buildHeaders(callingHeaders)), tandtReference)
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
 	private HttpHeaders buildHeaders(final Map<String, String> callingHeaders) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.APPLICATION_JSON);
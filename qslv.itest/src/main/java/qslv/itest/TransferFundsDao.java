@@ -2,6 +2,7 @@ package qslv.itest;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,8 @@ public class TransferFundsDao {
 	private RestTemplateProxy restTemplateProxy;
 	@Autowired
 	private RetryTemplate retryTemplate;
+	@Autowired
+	private AsyncRestProxy asyncRestProxy;
 
 	public void setConfig(ConfigProperties config) {
 		this.config = config;
@@ -47,6 +50,9 @@ public class TransferFundsDao {
 	public void setRestTimer( RestClientElapsedTimeSLILogger restTimer) {
 		this.restTimer=restTimer;
 	}
+	public void setAsyncTemplate(AsyncRestProxy asyncRestProxy) {
+		this.asyncRestProxy = asyncRestProxy;
+	}
 	
 	public TransferFundsResponse transferFunds(final Map<String, String> callingHeaders, final TransferFundsRequest request) {
 		log.trace("transferFunds ENTRY {}", request.toString());
@@ -69,11 +75,18 @@ public class TransferFundsDao {
 			throw ex;
 		}
 		
-		//TODO compare remote time vs. local time
 		log.trace("transferFunds EXIT");
 		return response.getBody().getPayload();
 	}
 	
+	public CompletableFuture<TransferFundsResponse> transferFundsAsync(final Map<String, String> callingHeaders, final TransferFundsRequest request) {
+		log.trace("transferFundsAsync ENTRY {}", request.toString());
+
+		return asyncRestProxy.exchange(config.getTransferFundsUrl(), HttpMethod.POST,
+				new HttpEntity<TransferFundsRequest>(request, buildHeaders(callingHeaders)), typeReference)
+			.thenApply(response -> response.getBody().getPayload());
+	}
+
 	private HttpHeaders buildHeaders(final Map<String, String> callingHeaders) {
 		HttpHeaders headers = new HttpHeaders();
 		headers.setContentType(MediaType.APPLICATION_JSON);
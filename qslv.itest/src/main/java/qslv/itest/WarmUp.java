@@ -0,0 +1,212 @@
+package qslv.itest;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import qslv.common.kafka.TraceableMessage;
+import qslv.transaction.request.CancelReservationRequest;
+import qslv.transaction.request.CommitReservationRequest;
+import qslv.transaction.request.TransactionRequest;
+import qslv.transfer.request.TransferFulfillmentMessage;
+
+/*
+ * Runs once when the context is ready, if warmupEnabled, before a load run measures anything. Opens pooled JDBC,
+ * Kafka producer and HTTP connections, then drives rounds of warmupOperations (alternating the blocking and the
+ * non-blocking REST path) until the round median of every one of them, each on its own, moves less than
+ * warmupSettleTolerance for warmupSettleRounds rounds, or warmupMaxSeconds pass. Every Resettable recorder is
+ * reset afterwards so no warm-up sample is reported.
+ * Kafka producers only fetch metadata, and warmupOperations should not name an operation that publishes (transferFunds,
+ * the fulfillment operations): a warm-up message would be fulfilled and its reply picked up by the test.
+ */
+@Component
+public class WarmUp {
+	private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+	@Autowired
+	private ConfigProperties config;
+	@Autowired
+	private LoadOperations loadOperations;
+	@Autowired(required = false)
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private JdbcDao jdbcDao;
+	@Autowired
+	@Qualifier("transferFulfillmentKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<TransferFulfillmentMessage>> transferFulfillmentKafkaTemplate;
+	@Autowired
+	@Qualifier("cancelFulfillmentKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<CancelReservationRequest>> cancelFulfillmentKafkaTemplate;
+	@Autowired
+	@Qualifier("commitFulfillmentKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<CommitReservationRequest>> commitFulfillmentKafkaTemplate;
+	@Autowired
+	@Qualifier("transactionFulfillmentKafkaTemplate")
+	private KafkaTemplate<String, TraceableMessage<TransactionRequest>> transactionFulfillmentKafkaTemplate;
+	@Autowired
+	private List<Resettable> recorders;
+
+	private final AtomicBoolean done = new AtomicBoolean();
+
+	public void setConfig(ConfigProperties config) {
+		this.config = config;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (config.isWarmupEnabled()) {
+			run();
+		}
+	}
+
+	public void run() {
+		if (!done.compareAndSet(false, true)) {
+			return;
+		}
+		log.info("run ENTRY {}", config.getWarmupOperations());
+		long startNanos = System.nanoTime();
+
+		openJdbc();
+		openKafka();
+		loadOperations.setupAccounts();
+		int rounds = settle(startNanos + TimeUnit.SECONDS.toNanos(config.getWarmupMaxSeconds()));
+		resetRecorders();
+
+		log.info("run EXIT {} rounds in {}ms", rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+	}
+
+	public void resetRecorders() {
+		recorders.forEach(Resettable::reset);
+	}
+
+	private void openJdbc() {
+		if (jdbcTemplate == null) {
+			return;
+		}
+		// hold warmupConcurrency connections at once so the pool really grows to that size
+		DataSource dataSource = jdbcTemplate.getDataSource();
+		List<Connection> connections = new ArrayList<>();
+		try {
+			for (int i = 0; i < config.getWarmupConcurrency(); i++) {
+				connections.add(dataSource.getConnection());
+			}
+		} catch (Exception ex) {
+			log.warn("openJdbc {}", ex.getLocalizedMessage());
+		} finally {
+			for (Connection connection : connections) {
+				try {
+					connection.close();
+				} catch (Exception ex) {
+					log.debug("openJdbc close {}", ex.getLocalizedMessage());
+				}
+			}
+		}
+		log.debug("openJdbc {} connections", connections.size());
+	}
+
+	private void openKafka() {
+		try {
+			transferFulfillmentKafkaTemplate.partitionsFor(config.getKafkaTransferRequestQueue());
+			cancelFulfillmentKafkaTemplate.partitionsFor(config.getKafkaCancelRequestQueue());
+			commitFulfillmentKafkaTemplate.partitionsFor(config.getKafkaCommitRequestQueue());
+			transactionFulfillmentKafkaTemplate.partitionsFor(config.getKafkaTransactionRequestQueue());
+		} catch (Exception ex) {
+			log.warn("openKafka {}", ex.getLocalizedMessage());
+		}
+	}
+
+	private int settle(long deadlineNanos) {
+		Map<String, Callable<?>> calls = new LinkedHashMap<>();
+		for (String name : Arrays.asList(config.getWarmupOperations().split(","))) {
+			String operation = name.trim();
+			if (operation.isEmpty()) {
+				continue;
+			}
+			LoadOperation async = loadOperations.byName(operation);
+			calls.put(operation, loadOperations.blockingByName(operation));
+			calls.put(operation + " async", () -> async.start().get());
+		}
+		calls.put("jdbc selectBalance", () -> jdbcDao.selectBalance(LoadOperations.LOAD_ACCOUNT + 0));
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getWarmupConcurrency()));
+		int rounds = 0;
+		int settledRounds = 0;
+		Map<String, Long> previousMedians = new HashMap<>();
+		try {
+			while (settledRounds < config.getWarmupSettleRounds() && System.nanoTime() < deadlineNanos) {
+				Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+				calls.keySet().forEach(name -> latencies.put(name, new LatencyHistogram()));
+				long errors = runRound(executor, calls, latencies);
+				rounds++;
+
+				// a slow endpoint must settle too, not hide behind the median of a fast one
+				boolean settled = errors == 0;
+				for (Map.Entry<String, LatencyHistogram> latency : latencies.entrySet()) {
+					long median = latency.getValue().valueAtPercentile(50.0);
+					Long previousMedian = previousMedians.put(latency.getKey(), median);
+					log.debug("settle round={} errors={} {} {}", rounds, errors, latency.getKey(), latency.getValue().summary());
+					settled &= previousMedian != null && previousMedian > 0
+							&& Math.abs(median - previousMedian) <= previousMedian * config.getWarmupSettleTolerance();
+				}
+				settledRounds = settled ? settledRounds + 1 : 0;
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		if (settledRounds < config.getWarmupSettleRounds()) {
+			log.warn("settle latency not settled after {} rounds", rounds);
+		}
+		return rounds;
+	}
+
+	private long runRound(ExecutorService executor, Map<String, Callable<?>> calls, Map<String, LatencyHistogram> latencies)
+			throws InterruptedException {
+		List<String> names = new ArrayList<>(calls.keySet());
+		AtomicLong errors = new AtomicLong();
+		CountDownLatch finished = new CountDownLatch(config.getWarmupRoundCalls());
+		for (int i = 0; i < config.getWarmupRoundCalls(); i++) {
+			String name = names.get(i % names.size());
+			Callable<?> call = calls.get(name);
+			LatencyHistogram latency = latencies.get(name);
+			executor.execute(() -> {
+				long callStart = System.nanoTime();
+				try {
+					call.call();
+				} catch (Exception ex) {
+					errors.incrementAndGet();
+					log.debug("runRound {}", ex.getLocalizedMessage());
+				} finally {
+					latency.record(System.nanoTime() - callStart);
+					finished.countDown();
+				}
+			});
+		}
+		finished.await();
+		return errors.get();
+	}
+}